@@ -0,0 +1,106 @@
+#!/bin/sh
+# Time to first request and resident memory for each way of starting the application.
+#
+#   mvn -P aot package -DskipTests          (and mvn -P native native:compile -DskipTests for native)
+#   scripts/startup-report.sh [jvm] [aot] [aot-cds] [native]
+#
+# The JVM modes run the same exploded layout as the Dockerfile. The application reads its usual
+# environment (DATASOURCE_URL, DATASOURCE_USER, DATASOURCE_PASSWORD, FRONTEND_URL). Optional settings:
+#   APP_ARGS         extra application arguments, for example --server.port=9193
+#   EXTRA_CLASSPATH  jars appended to the class path, for example another JDBC driver
+#   PROBE_URL        first request to wait for (default http://localhost:9192/rooms/room/types)
+#   RUNS             starts per mode (default 3)
+set -e
+
+cd "$(dirname "$0")/.."
+JAR=target/suitenest-0.0.1-SNAPSHOT.jar
+NATIVE=target/suitenest
+WORK=target/startup-report
+PROBE_URL=${PROBE_URL:-http://localhost:9192/rooms/room/types}
+RUNS=${RUNS:-3}
+MAIN=com.sunny.suitenest.SuitenestApplication
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+# Same steps as the build stage of the Dockerfile
+prepare_layout() {
+    [ -f "$WORK/classpath.args" ] && [ "$WORK/classpath.args" -nt "$JAR" ] && return
+    rm -rf "$WORK" && mkdir -p "$WORK/layers" "$WORK/app"
+    java -Djarmode=layertools -jar "$JAR" extract --destination "$WORK/layers"
+    for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+        cp -r "$WORK/layers/$layer/." "$WORK/app/"
+    done
+    jar --create --file "$WORK/app/BOOT-INF/application.jar" -C "$WORK/app/BOOT-INF/classes" .
+    rm -rf "$WORK/app/BOOT-INF/classes"
+    echo "-cp BOOT-INF/application.jar:$(sed -n 's/^- "\(.*\)"$/\1/p' "$WORK/app/BOOT-INF/classpath.idx" | paste -sd: -)${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}" \
+        > "$WORK/classpath.args"
+}
+
+# Same training run as the runtime stage of the Dockerfile
+train_cds() {
+    [ -f "$WORK/application.jsa" ] && [ "$WORK/application.jsa" -nt "$WORK/classpath.args" ] && return
+    (cd "$WORK/app" && DATASOURCE_URL=jdbc:postgresql://localhost:5432/training DATASOURCE_USER=training \
+        DATASOURCE_PASSWORD= FRONTEND_URL=http://localhost java -XX:ArchiveClassesAtExit=../application.jsa -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh @../classpath.args $MAIN \
+        --spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+        --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+        --logging.level.com.zaxxer.hikari=OFF > ../training.log 2>&1)
+}
+
+measure() {
+    mode=$1
+    shift
+    total_ms=0
+    total_rss=0
+    run=1
+    while [ $run -le "$RUNS" ]; do
+        start=$(now_ms)
+        (cd "$WORK/app" 2>/dev/null || true; exec "$@" $APP_ARGS) > "$WORK/$mode.log" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "$PROBE_URL"; do
+            if ! kill -0 $pid 2>/dev/null; then
+                echo "$mode: application exited, see $WORK/$mode.log" >&2
+                return 1
+            fi
+            sleep 0.05
+        done
+        elapsed=$(($(now_ms) - start))
+        rss=$(awk '/VmRSS/ { print int($2 / 1024) }' /proc/$pid/status)
+        kill $pid
+        wait $pid 2>/dev/null || true
+        total_ms=$((total_ms + elapsed))
+        total_rss=$((total_rss + rss))
+        run=$((run + 1))
+    done
+    printf '%-10s %12d %10d\n' "$mode" $((total_ms / RUNS)) $((total_rss / RUNS))
+}
+
+MODES=${*:-jvm aot aot-cds native}
+mkdir -p "$WORK"
+printf '%-10s %12s %10s\n' mode first-req-ms rss-mb
+for mode in $MODES; do
+    case $mode in
+        jvm)
+            prepare_layout
+            measure jvm java @../classpath.args $MAIN ;;
+        aot)
+            prepare_layout
+            measure aot java -Dspring.aot.enabled=true @../classpath.args $MAIN ;;
+        aot-cds)
+            prepare_layout
+            train_cds
+            measure aot-cds java -XX:SharedArchiveFile=../application.jsa -Dspring.aot.enabled=true \
+                @../classpath.args $MAIN ;;
+        native)
+            if [ -x "$NATIVE" ]; then
+                measure native "$(pwd)/$NATIVE"
+            else
+                echo "native: $NATIVE not built, skipped" >&2
+            fi ;;
+        *)
+            echo "unknown mode: $mode" >&2
+            exit 1 ;;
+    esac
+done
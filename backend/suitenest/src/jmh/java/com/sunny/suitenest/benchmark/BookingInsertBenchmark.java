@@ -0,0 +1,196 @@
+package com.sunny.suitenest.benchmark;
+
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second when saving 10k bookings through Hibernate with the application's batching settings.
+ * SEQUENCE persists the real BookedRoom mapping (pooled sequence ids); IDENTITY persists the same columns
+ * with the identity ids bookings used before, which Hibernate cannot batch.
+ * By default the database is an in-memory H2 reached through a local TCP server, so every statement pays a
+ * network round trip as it would against a database server; pass -p jdbcUrl=... -p user=... -p password=...
+ * to run against a real one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingInsertBenchmark {
+
+    private static final int BOOKINGS = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public GenerationType idGeneration;
+
+    @Param("")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private Server h2Server;
+    private SessionFactory sessionFactory;
+    private Long roomId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = jdbcUrl;
+        if (url.isEmpty()) {
+            h2Server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + h2Server.getPort() + "/mem:bookings;DB_CLOSE_DELAY=-1";
+        }
+        var registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, user)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, password)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(Room.class, BookedRoom.class, IdentityBookedRoom.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        Room room = new Room();
+        room.setRoomType("Double");
+        room.setRoomPrice(new BigDecimal("200.00"));
+        sessionFactory.inTransaction(session -> session.persist(room));
+        roomId = room.getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearBookings() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from BookedRoom").executeUpdate();
+            session.createMutationQuery("delete from IdentityBookedRoom").executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        if (h2Server != null) {
+            h2Server.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public void insertBookings() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Room room = session.getReference(Room.class, roomId);
+            LocalDate checkIn = LocalDate.of(2025, 1, 1);
+            for (int i = 0; i < BOOKINGS; i++) {
+                session.persist(newBooking(room, checkIn.plusDays(i), i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                    room = session.getReference(Room.class, roomId);
+                }
+            }
+            transaction.commit();
+        }
+    }
+
+    private Object newBooking(Room room, LocalDate checkIn, int i) {
+        String code = String.format("%010d", i);
+        if (idGeneration == GenerationType.IDENTITY) {
+            IdentityBookedRoom booking = new IdentityBookedRoom();
+            booking.checkInDate = checkIn;
+            booking.checkOutDate = checkIn.plusDays(1);
+            booking.guestFullName = "Guest " + i;
+            booking.guestEmail = "guest" + i + "@example.com";
+            booking.numOfAdults = 2;
+            booking.totalNumOfGuest = 2;
+            booking.bookingConfirmationCode = code;
+            booking.room = room;
+            return booking;
+        }
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(1));
+        booking.setGuestFullName("Guest " + i);
+        booking.setGuestEmail("guest" + i + "@example.com");
+        booking.setNumOfAdults(2);
+        booking.setBookingConfirmationCode(code);
+        booking.setRoom(room);
+        return booking;
+    }
+
+    /** BookedRoom's columns with the identity id it had before pooled sequences. */
+    @Entity(name = "IdentityBookedRoom")
+    @Table(name = "identity_booked_room")
+    public static class IdentityBookedRoom {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "booking_id")
+        Long bookingId;
+
+        @Column(name = "check_in")
+        LocalDate checkInDate;
+        @Column(name = "check_out")
+        LocalDate checkOutDate;
+        @Column(name = "guest_full_name")
+        String guestFullName;
+        @Column(name = "guest_email")
+        String guestEmail;
+        @Column(name = "adults")
+        int numOfAdults;
+        @Column(name = "children")
+        int numOfChildren;
+        @Column(name = "total_guest")
+        int totalNumOfGuest;
+        @Column(name = "confirmation_code")
+        String bookingConfirmationCode;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "room_id")
+        Room room;
+    }
+}
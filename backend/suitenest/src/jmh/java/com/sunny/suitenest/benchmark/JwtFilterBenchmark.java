@@ -0,0 +1,88 @@
+package com.sunny.suitenest.benchmark;
+
+import com.sunny.suitenest.security.jwt.JwtUtils;
+import com.sunny.suitenest.security.user.HotelUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done by AuthTokenFilter for each authenticated request, plus token generation at login.
+ * The legacy benchmark reproduces the old validateToken + getUserNameFromToken pair,
+ * which rebuilt the key and parser and checked the signature twice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    static final String SECRET = "36763979244226452948404D635166546A576D5A7134743777217A25432A462D";
+    static final int EXPIRATION_MILLIS = 3_600_000;
+
+    private JwtUtils cachedJwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtils = new JwtUtils(SECRET, EXPIRATION_MILLIS, 10_000);
+        uncachedJwtUtils = new JwtUtils(SECRET, EXPIRATION_MILLIS, 0);
+        authentication = authentication("guest@example.com");
+        token = cachedJwtUtils.generateJwtTokenForUser(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedJwtUtils.generateJwtTokenForUser(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncachedJwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Key validateKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Jwts.parserBuilder().setSigningKey(validateKey).build().parse(token);
+        Key parseKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(parseKey).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return uncachedJwtUtils.parseClaims(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    @Benchmark
+    public String cachedParse() {
+        return cachedJwtUtils.parseClaims(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    static UsernamePasswordAuthenticationToken authentication(String email) {
+        HotelUserDetails user = new HotelUserDetails(1L, email, "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
@@ -0,0 +1,72 @@
+package com.sunny.suitenest.benchmark;
+
+import com.sunny.suitenest.availability.BookingOverlap;
+import com.sunny.suitenest.model.BookedRoom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overlap check run by saveBooking against every existing booking of a room.
+ * A request after the last stay is accepted and so scans the whole list, which is the worst case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomIsAvailableBenchmark {
+
+    private static final LocalDate FIRST_CHECK_IN = LocalDate.of(2025, 1, 1);
+
+    @Param({"10", "1000", "100000"})
+    public int existingBookings;
+
+    private List<BookedRoom> bookings;
+    private BookedRoom freeRequest;
+    private BookedRoom clashingRequest;
+
+    @Setup
+    public void setUp() {
+        bookings = new ArrayList<>(existingBookings);
+        for (int i = 0; i < existingBookings; i++) {
+            LocalDate checkIn = FIRST_CHECK_IN.plusDays(3L * i);
+            bookings.add(booking(checkIn, checkIn.plusDays(2)));
+        }
+        LocalDate afterLastStay = FIRST_CHECK_IN.plusDays(3L * existingBookings + 1);
+        freeRequest = booking(afterLastStay, afterLastStay.plusDays(2));
+        LocalDate middleStay = FIRST_CHECK_IN.plusDays(3L * (existingBookings / 2));
+        clashingRequest = booking(middleStay, middleStay.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean availableRoom() {
+        return BookingOverlap.roomIsAvailable(freeRequest, bookings);
+    }
+
+    @Benchmark
+    public boolean clashingRoom() {
+        return BookingOverlap.roomIsAvailable(clashingRequest, bookings);
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        return booking;
+    }
+}
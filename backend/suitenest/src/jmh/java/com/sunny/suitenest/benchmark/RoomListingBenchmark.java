@@ -0,0 +1,78 @@
+package com.sunny.suitenest.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunny.suitenest.response.BookingResponse;
+import com.sunny.suitenest.response.PhotoMode;
+import com.sunny.suitenest.response.RoomResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the all-rooms response. The mapper is built the way Spring MVC builds its
+ * message converter under @EnableWebMvc, so the output matches what clients receive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomListingBenchmark {
+
+    private static final int PHOTO_BYTES = 64 * 1024;
+    private static final int BOOKINGS_PER_ROOM = 5;
+
+    @Param({"20", "100"})
+    public int rooms;
+
+    @Param({"URL", "INLINE"})
+    public PhotoMode photoMode;
+
+    private ObjectMapper objectMapper;
+    private List<RoomResponse> listing;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        byte[] photo = new byte[PHOTO_BYTES];
+        new Random(42).nextBytes(photo);
+
+        listing = new ArrayList<>(rooms);
+        for (long id = 1; id <= rooms; id++) {
+            List<BookingResponse> bookings = new ArrayList<>();
+            for (long b = 0; b < BOOKINGS_PER_ROOM; b++) {
+                LocalDate checkIn = LocalDate.of(2025, 1, 1).plusDays(3 * b);
+                bookings.add(new BookingResponse(id * 100 + b, checkIn, checkIn.plusDays(2), "100000" + b));
+            }
+            RoomResponse room = new RoomResponse(id, "Double", new BigDecimal("200.00"), false,
+                    photoMode == PhotoMode.INLINE ? photo : null, bookings);
+            if (photoMode == PhotoMode.URL) {
+                room.setPhotoUrl("/rooms/" + id + "/photo?v=0123456789abcdef");
+            }
+            listing.add(room);
+        }
+    }
+
+    @Benchmark
+    public void serializeListing() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), listing);
+    }
+}
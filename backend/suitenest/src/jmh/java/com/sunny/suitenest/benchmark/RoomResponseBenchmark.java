@@ -0,0 +1,63 @@
+package com.sunny.suitenest.benchmark;
+
+import com.sunny.suitenest.response.RoomResponse;
+import org.apache.tomcat.util.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a RoomResponse with an inline photo, for photo sizes typical of room uploads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomResponseBenchmark {
+
+    @Param({"16384", "131072", "1048576"})
+    public int photoBytes;
+
+    private byte[] photo;
+
+    @Setup
+    public void setUp() {
+        photo = new byte[photoBytes];
+        new Random(42).nextBytes(photo);
+    }
+
+    @Benchmark
+    public String tomcatBase64() {
+        return Base64.encodeBase64String(photo);
+    }
+
+    @Benchmark
+    public String jdkBase64() {
+        return java.util.Base64.getEncoder().encodeToString(photo);
+    }
+
+    @Benchmark
+    public RoomResponse roomResponseWithPhoto() {
+        return new RoomResponse(1L, "Double", new BigDecimal("200.00"), false, photo, List.of());
+    }
+
+    @Benchmark
+    public RoomResponse roomResponseWithoutPhoto() {
+        return new RoomResponse(1L, "Double", new BigDecimal("200.00"), false, null, List.of());
+    }
+}
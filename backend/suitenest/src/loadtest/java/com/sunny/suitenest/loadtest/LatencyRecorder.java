@@ -0,0 +1,72 @@
+package com.sunny.suitenest.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency samples for one endpoint. Each worker thread records into its own slot,
+ * and the slots are merged and sorted once when the report is printed.
+ */
+final class LatencyRecorder {
+
+    private final String endpoint;
+    private final long[][] samples;
+    private final int[] counts;
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    LatencyRecorder(String endpoint, int threads) {
+        this.endpoint = endpoint;
+        this.samples = new long[threads][1024];
+        this.counts = new int[threads];
+    }
+
+    void record(int thread, long nanos) {
+        if (counts[thread] == samples[thread].length) {
+            samples[thread] = Arrays.copyOf(samples[thread], counts[thread] * 2);
+        }
+        samples[thread][counts[thread]++] = nanos;
+    }
+
+    void error() {
+        errors.incrementAndGet();
+    }
+
+    // 4xx answers the application gives on purpose, such as a room that is already booked
+    void rejection() {
+        rejections.incrementAndGet();
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-28s %9s %9s %8s %8s %9s %9s %9s %9s",
+                "endpoint", "requests", "req/s", "rejected", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    String report(double seconds) {
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int t = 0; t < samples.length; t++) {
+            System.arraycopy(samples[t], 0, all, offset, counts[t]);
+            offset += counts[t];
+        }
+        Arrays.sort(all);
+        return String.format(Locale.ROOT, "%-28s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f",
+                endpoint, total, total / seconds, rejections.get(), errors.get(),
+                millis(percentile(all, 50)), millis(percentile(all, 95)), millis(percentile(all, 99)),
+                millis(total == 0 ? 0 : all[total - 1]));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
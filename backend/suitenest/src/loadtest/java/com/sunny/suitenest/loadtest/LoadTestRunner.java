@@ -0,0 +1,185 @@
+package com.sunny.suitenest.loadtest;
+
+import com.sunny.suitenest.SuitenestApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application with the loadtest profile, lets LoadTestSeeder fill the in-memory database,
+ * then drives a fixed mix of searches, bookings, confirmation lookups and logins from worker threads
+ * and prints throughput and latency percentiles per endpoint.
+ * <p>
+ * Run with {@code mvn -P loadtest verify}; any loadtest.* property can be overridden through
+ * {@code -Dloadtest.args="--loadtest.threads=32 --loadtest.duration=60s"}.
+ */
+public final class LoadTestRunner {
+
+    private static final int SEARCH_WEIGHT = 50;
+    private static final int BOOKING_WEIGHT = 20;
+    private static final int CONFIRMATION_WEIGHT = 20;
+    private static final int LOGIN_WEIGHT = 10;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int rooms;
+    private final int bookings;
+    private final int users;
+    private final int seededDays;
+
+    private final LatencyRecorder search;
+    private final LatencyRecorder booking;
+    private final LatencyRecorder confirmation;
+    private final LatencyRecorder login;
+
+    private LoadTestRunner(Environment environment) {
+        this.baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+        this.threads = environment.getRequiredProperty("loadtest.threads", Integer.class);
+        this.warmup = environment.getRequiredProperty("loadtest.warmup", Duration.class);
+        this.duration = environment.getRequiredProperty("loadtest.duration", Duration.class);
+        this.rooms = environment.getRequiredProperty("loadtest.rooms", Integer.class);
+        this.bookings = environment.getRequiredProperty("loadtest.bookings", Integer.class);
+        this.users = environment.getRequiredProperty("loadtest.users", Integer.class);
+        this.seededDays = 3 * (bookings / Math.max(1, rooms) + 1);
+
+        this.search = new LatencyRecorder("GET /rooms/available-rooms", threads);
+        this.booking = new LatencyRecorder("POST /bookings/room/{id}", threads);
+        this.confirmation = new LatencyRecorder("GET /bookings/confirmation", threads);
+        this.login = new LatencyRecorder("POST /auth/login", threads);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(SuitenestApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            new LoadTestRunner(context.getEnvironment()).run();
+        }
+    }
+
+    private void run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        System.out.printf("Driving %s with %d threads: %s warmup, %s measured%n", baseUrl, threads, warmup, duration);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> drive(worker, measureFrom, measureUntil), "loadtest-" + i);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.println();
+        System.out.println(LatencyRecorder.header());
+        for (LatencyRecorder recorder : List.of(search, booking, confirmation, login)) {
+            System.out.println(recorder.report(seconds));
+        }
+        System.out.println();
+    }
+
+    private void drive(int worker, long measureFrom, long measureUntil) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            int pick = random.nextInt(SEARCH_WEIGHT + BOOKING_WEIGHT + CONFIRMATION_WEIGHT + LOGIN_WEIGHT);
+            LatencyRecorder recorder;
+            HttpRequest request;
+            if (pick < SEARCH_WEIGHT) {
+                recorder = search;
+                request = searchRequest(random);
+            } else if (pick < SEARCH_WEIGHT + BOOKING_WEIGHT) {
+                recorder = booking;
+                request = bookingRequest(random);
+            } else if (pick < SEARCH_WEIGHT + BOOKING_WEIGHT + CONFIRMATION_WEIGHT) {
+                recorder = confirmation;
+                request = confirmationRequest(random);
+            } else {
+                recorder = login;
+                request = loginRequest(random);
+            }
+            send(worker, recorder, request, now >= measureFrom);
+        }
+    }
+
+    private void send(int worker, LatencyRecorder recorder, HttpRequest request, boolean measured) {
+        long start = System.nanoTime();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (!measured) {
+                return;
+            }
+            recorder.record(worker, System.nanoTime() - start);
+            if (status >= 500) {
+                recorder.error();
+            } else if (status >= 400) {
+                recorder.rejection();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (measured) {
+                recorder.error();
+            }
+        }
+    }
+
+    private HttpRequest searchRequest(ThreadLocalRandom random) {
+        LocalDate checkIn = LoadTestSeeder.FIRST_CHECK_IN.plusDays(random.nextInt(seededDays + 60));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+        String roomType = LoadTestSeeder.ROOM_TYPES[random.nextInt(LoadTestSeeder.ROOM_TYPES.length)];
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/rooms/available-rooms?checkInDate=" + checkIn
+                        + "&checkOutDate=" + checkOut + "&roomType=" + roomType.replace(" ", "%20") + "&photoMode=URL"))
+                .GET()
+                .build();
+    }
+
+    // New stays land after the seeded calendar, so a share of them succeed and the rest are rejected as clashes
+    private HttpRequest bookingRequest(ThreadLocalRandom random) {
+        LocalDate checkIn = LoadTestSeeder.FIRST_CHECK_IN.plusDays(seededDays + random.nextInt(365));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+        String body = "{\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\"" + checkOut + "\"," +
+                "\"guestFullName\":\"Load Test\",\"guestEmail\":\"" + LoadTestSeeder.userEmail(random.nextInt(users)) + "\"," +
+                "\"numOfAdults\":2,\"numOfChildren\":0}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/room/" + (1 + random.nextInt(rooms)) + "/booking"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest confirmationRequest(ThreadLocalRandom random) {
+        String code = LoadTestSeeder.confirmationCode(random.nextInt(Math.max(1, bookings)));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/confirmation/" + code))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest loginRequest(ThreadLocalRandom random) {
+        String body = "{\"email\":\"" + LoadTestSeeder.userEmail(random.nextInt(users)) + "\"," +
+                "\"password\":\"" + LoadTestSeeder.USER_PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.sunny.suitenest.loadtest;
+
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.datasource.ReplicaRoutingDataSource;
+import com.sunny.suitenest.migration.PooledSequenceMigration;
+import com.sunny.suitenest.photo.PhotoStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the in-memory database with rooms, photos, users and bookings before traffic starts.
+ * Seeded bookings never overlap, so every one of them is also a valid entry in the availability index.
+ * With the replica profile, each in-memory replica is given the same rows.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestSeeder implements ApplicationRunner {
+
+    static final String[] ROOM_TYPES = {"Single", "Double", "Double Deluxe", "Suite"};
+    static final String USER_PASSWORD = "password";
+    static final LocalDate FIRST_CHECK_IN = LocalDate.now().plusDays(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestSeeder.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStore photoStore;
+    private final PasswordEncoder passwordEncoder;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    @Value("${loadtest.rooms}")
+    private int rooms;
+    @Value("${loadtest.photos}")
+    private int photos;
+    @Value("${loadtest.photo-bytes}")
+    private int photoBytes;
+    @Value("${loadtest.bookings}")
+    private int bookings;
+    @Value("${loadtest.users}")
+    private int users;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        List<String> photoKeys = seedPhotos(random);
+        long roomSeed = random.nextLong();
+        String passwordHash = passwordEncoder.encode(USER_PASSWORD);
+
+        List<JdbcTemplate> databases = new ArrayList<>();
+        databases.add(jdbcTemplate);
+        replicaRouting.ifAvailable(routing -> routing.getReplicas().forEach(replica ->
+                databases.add(new JdbcTemplate(replica))));
+        for (JdbcTemplate database : databases) {
+            seedUsers(database, passwordHash);
+            seedRooms(database, new Random(roomSeed), photoKeys);
+            seedBookings(database);
+            restartIdSequences(database);
+        }
+        availabilityIndex.rebuild();
+
+        logger.info("Seeded {} rooms, {} photos, {} users and {} bookings into {} database(s) in {} ms",
+                rooms, photos, users, bookings, databases.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static String userEmail(int index) {
+        return "loadtest" + index + "@example.com";
+    }
+
+    static String confirmationCode(int bookingIndex) {
+        return String.format("%010d", bookingIndex);
+    }
+
+    // Bookings are spread round-robin over rooms, one three-day slot after another
+    static LocalDate seededCheckIn(int bookingIndex, int rooms) {
+        return FIRST_CHECK_IN.plusDays(3L * (bookingIndex / rooms));
+    }
+
+    private void seedUsers(JdbcTemplate jdbcTemplate, String passwordHash) {
+        jdbcTemplate.update("INSERT INTO role (name) VALUES ('ROLE_USER'), ('ROLE_ADMIN')");
+        Long userRoleId = jdbcTemplate.queryForObject("SELECT id FROM role WHERE name = 'ROLE_USER'", Long.class);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{"Load", "Test" + i, userEmail(i), passwordHash});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO app_user (first_name, last_name, email, password) VALUES (?, ?, ?, ?)", rows);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM app_user", userRoleId);
+    }
+
+    private List<String> seedPhotos(Random random) throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < photos; i++) {
+            byte[] photo = new byte[photoBytes];
+            random.nextBytes(photo);
+            System.arraycopy(JPEG_HEADER, 0, photo, 0, JPEG_HEADER.length);
+            keys.add(photoStore.put(new ByteArrayInputStream(photo)));
+        }
+        return keys;
+    }
+
+    private void seedRooms(JdbcTemplate jdbcTemplate, Random random, List<String> photoKeys) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            BigDecimal price = BigDecimal.valueOf(50 + random.nextInt(450)).setScale(2);
+            String photoKey = photoKeys.isEmpty() ? null : photoKeys.get(i % photoKeys.size());
+            rows.add(new Object[]{ROOM_TYPES[i % ROOM_TYPES.length], price, photoKey});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO room (room_type, room_price, is_booked, photo_key, version) VALUES (?, ?, false, ?, 0)", rows);
+    }
+
+    private void seedBookings(JdbcTemplate jdbcTemplate) {
+        List<Long> roomIds = jdbcTemplate.queryForList("SELECT id FROM room ORDER BY id", Long.class);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < bookings; i++) {
+            LocalDate checkIn = seededCheckIn(i, roomIds.size());
+            rows.add(new Object[]{
+                    Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(2)), "Guest " + i, userEmail(i % users),
+                    2, 1, 3, confirmationCode(i), roomIds.get(i % roomIds.size())
+            });
+            if (rows.size() == BATCH_SIZE) {
+                insertBookings(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertBookings(jdbcTemplate, rows);
+        jdbcTemplate.update("UPDATE room SET is_booked = true WHERE id IN (SELECT room_id FROM booked_room)");
+    }
+
+    private static void insertBookings(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO booked_room (check_in, check_out, guest_full_name, guest_email," +
+                " adults, children, total_guest, confirmation_code, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // Seeded rows take identity ids, so rooms are numbered 1..rooms as the runner expects. The sequences
+    // Hibernate allocates ids from then have to start above them.
+    private static void restartIdSequences(JdbcTemplate jdbcTemplate) {
+        restartSequence(jdbcTemplate, "role_seq", "role", "id");
+        restartSequence(jdbcTemplate, "app_user_seq", "app_user", "id");
+        restartSequence(jdbcTemplate, "room_seq", "room", "id");
+        restartSequence(jdbcTemplate, "booked_room_seq", "booked_room", "booking_id");
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                + (maxId + PooledSequenceMigration.ALLOCATION_SIZE));
+    }
+}
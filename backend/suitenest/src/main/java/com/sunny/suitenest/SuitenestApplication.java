@@ -1,9 +1,12 @@
 package com.sunny.suitenest;
 
+import com.sunny.suitenest.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class SuitenestApplication {
 
 	public static void main(String[] args) {
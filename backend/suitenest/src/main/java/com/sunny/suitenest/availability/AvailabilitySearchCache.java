@@ -0,0 +1,106 @@
+package com.sunny.suitenest.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunny.suitenest.repository.projection.BookedStay;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Results of available-room searches keyed by date range and room type.
+ * <p>
+ * There is no expiry: {@link RoomAvailabilityIndex} evicts the entries a booking change can affect
+ * right after applying that change, and drops everything when a room is added, changed or deleted, and
+ * whenever it reloads to pick up changes committed by other nodes.
+ */
+@Component
+public class AvailabilitySearchCache implements MeterBinder {
+
+    private final Cache<SearchKey, List<RoomSummary>> results;
+    private Counter invalidations;
+
+    // Bumped on every eviction. A search that started before an eviction may have read the old
+    // calendar, so its result is returned but not cached.
+    private long generation;
+
+    public AvailabilitySearchCache(@Value("${rooms.search-cache.size:1000}") int cacheSize) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    public List<RoomSummary> get(LocalDate checkInDate, LocalDate checkOutDate, String roomType,
+                                 Supplier<List<RoomSummary>> search) {
+        SearchKey key = new SearchKey(checkInDate, checkOutDate, StringUtils.hasText(roomType) ? roomType : null);
+        List<RoomSummary> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long searchGeneration = currentGeneration();
+        List<RoomSummary> rooms = List.copyOf(search.get());
+        store(key, rooms, searchGeneration);
+        return rooms;
+    }
+
+    /**
+     * Evicts searches whose dates overlap the stay, using the same inclusive overlap rule as the
+     * availability calendar. A first booking also flips the room's booked flag, so searches listing
+     * the room as not yet booked are evicted as well.
+     */
+    synchronized void stayChanged(BookedStay stay) {
+        generation++;
+        int before = results.asMap().size();
+        results.asMap().entrySet().removeIf(entry -> entry.getKey().overlaps(stay)
+                || entry.getValue().stream().anyMatch(room -> room.id().equals(stay.roomId()) && !room.isBooked()));
+        countInvalidations(before - results.asMap().size());
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        int before = results.asMap().size();
+        results.invalidateAll();
+        countInvalidations(before);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, "rooms.availability");
+        invalidations = Counter.builder("suitenest.rooms.search.cache.invalidations")
+                .description("Cached availability searches dropped because of booking or room changes")
+                .register(registry);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void store(SearchKey key, List<RoomSummary> rooms, long searchGeneration) {
+        if (generation == searchGeneration) {
+            results.put(key, rooms);
+        }
+    }
+
+    private void countInvalidations(int count) {
+        if (invalidations != null && count > 0) {
+            invalidations.increment(count);
+        }
+    }
+
+    private record SearchKey(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+
+        boolean overlaps(BookedStay stay) {
+            return !stay.checkInDate().isAfter(checkOutDate) && !stay.checkOutDate().isBefore(checkInDate);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sunny.suitenest.availability;
+
+import com.sunny.suitenest.model.BookedRoom;
+
+import java.util.List;
+
+/**
+ * The date rules that decide whether a booking fits among the other bookings of its room.
+ */
+public final class BookingOverlap {
+
+    private BookingOverlap() {
+    }
+
+    // Stays as half-open [checkIn, checkOut) ranges: a guest may check in on the day another checks out,
+    // and the answer does not depend on which of two stays comes first
+    public static boolean overlapsAny(BookedRoom booking, List<BookedRoom> others) {
+        return others.stream().anyMatch(other ->
+                booking.getCheckInDate().isBefore(other.getCheckOutDate())
+                        && other.getCheckInDate().isBefore(booking.getCheckOutDate()));
+    }
+
+    /** Whether a requested booking fits among the existing bookings of its room. */
+    public static boolean roomIsAvailable(BookedRoom bookingRequest, List<BookedRoom> existingBookings) {
+        return existingBookings.stream().noneMatch(existingBooking ->
+                bookingRequest.getCheckInDate().equals(existingBooking.getCheckInDate())
+                        || bookingRequest.getCheckOutDate().isBefore(existingBooking.getCheckOutDate())
+                        || (bookingRequest.getCheckInDate().isAfter(existingBooking.getCheckInDate())
+                        && bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckOutDate()))
+                        || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+
+                        && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckOutDate()))
+                        || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+
+                        && bookingRequest.getCheckOutDate().isAfter(existingBooking.getCheckOutDate()))
+
+                        || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
+                        && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckInDate()))
+
+                        || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
+                        && bookingRequest.getCheckOutDate().equals(bookingRequest.getCheckInDate()))
+        );
+    }
+}
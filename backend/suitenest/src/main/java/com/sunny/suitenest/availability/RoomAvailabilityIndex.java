@@ -0,0 +1,289 @@
+package com.sunny.suitenest.availability;
+
+import com.sunny.suitenest.datasource.ReadRouting;
+import com.sunny.suitenest.repository.BookingRepository;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.BookedStay;
+import com.sunny.suitenest.repository.projection.BookingStamp;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomTypeView;
+import com.sunny.suitenest.transaction.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory calendar of booked nights per room, used to answer date searches without
+ * running the NOT IN subquery against the booked_room table.
+ * <p>
+ * The index is loaded when the context starts, before the web server accepts requests, and then kept
+ * in sync by the room and booking services.
+ * Changes made inside a transaction are applied only after that transaction commits, and each
+ * applied change evicts the cached searches it affects from {@link AvailabilitySearchCache}.
+ * <p>
+ * Changes committed by other nodes, or written to the database directly, never pass through those
+ * hooks. A background check therefore compares a cheap change marker with the one the index was
+ * loaded at, every rooms.availability.refresh-interval, and reloads the index when it moved. Room
+ * versions move with every booking and cancellation made by any node; the booking count and highest
+ * booking id catch rows inserted or deleted directly. Rows edited in place outside the application are
+ * picked up by a full reload every rooms.availability.full-rebuild-interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilitySearchCache searchCache;
+
+    // Zero turns the background check off, for a single node that is the only writer
+    @Value("${rooms.availability.refresh-interval:5s}")
+    private Duration refreshInterval;
+
+    @Value("${rooms.availability.full-rebuild-interval:15m}")
+    private Duration fullRebuildInterval;
+
+    // Replaced as a whole by a reload, so a search never sees a half-loaded index
+    private volatile Snapshot snapshot = new Snapshot(null);
+    private long loadedAtNanos;
+    private ScheduledExecutorService refresher;
+    private volatile boolean running;
+
+    // Loading in start() rather than at bean creation keeps a CDS training run, which stops after the
+    // context refresh, from needing the database
+    @Override
+    public void start() {
+        rebuild();
+        if (!refreshInterval.isZero() && !refreshInterval.isNegative()) {
+            refresher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "availability-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshQuietly,
+                    refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server's phase, so searches are never served from an empty index
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Read before the rooms and bookings: a change committed after this point moves the next marker
+        // and triggers another reload, even if this one already saw it
+        ChangeMarker marker = readMarker();
+        Snapshot loaded = new Snapshot(marker);
+
+        List<RoomTypeView> rooms = ReadRouting.onPrimary(roomRepository::findAllRoomTypeViews);
+        rooms.forEach(room -> loaded.calendars.put(room.id(), new RoomCalendar(room.roomType())));
+
+        List<BookedStay> stays = ReadRouting.onPrimary(bookingRepository::findAllBookedStays);
+        stays.forEach(loaded::addStay);
+
+        snapshot = loaded;
+        loadedAtNanos = System.nanoTime();
+        searchCache.invalidateAll();
+
+        logger.info("Availability index loaded {} rooms and {} bookings in {} ms",
+                rooms.size(), stays.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Reloads the index if the database changed since it was loaded, or a full reload is due. */
+    public synchronized void refreshIfChanged() {
+        boolean fullRebuildDue = System.nanoTime() - loadedAtNanos >= fullRebuildInterval.toNanos();
+        if (fullRebuildDue || !readMarker().equals(snapshot.marker)) {
+            rebuild();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refreshIfChanged();
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Availability index refresh failed, retrying in {}: {}",
+                    refreshInterval, e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Availability index refresh failed, retrying in {}", refreshInterval, e);
+        }
+    }
+
+    private ChangeMarker readMarker() {
+        return ReadRouting.onPrimary(() -> new ChangeMarker(
+                roomRepository.findInventoryStamp(), bookingRepository.findBookingStamp()));
+    }
+
+    public List<Long> findAvailableRoomIds(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        List<Long> roomIds = new ArrayList<>();
+        snapshot.calendars.forEach((roomId, calendar) -> {
+            if (calendar.matchesType(roomType) && calendar.isFree(checkInDate, checkOutDate)) {
+                roomIds.add(roomId);
+            }
+        });
+        roomIds.sort(Comparator.naturalOrder());
+        return roomIds;
+    }
+
+    public void roomSaved(Long roomId, String roomType) {
+        TransactionCallbacks.afterCommit(() -> {
+            snapshot.calendars.computeIfAbsent(roomId, id -> new RoomCalendar(roomType)).setRoomType(roomType);
+            searchCache.invalidateAll();
+        });
+    }
+
+    public void roomDeleted(Long roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            Snapshot current = snapshot;
+            current.calendars.remove(roomId);
+            current.bookingRooms.values().removeIf(roomId::equals);
+            searchCache.invalidateAll();
+        });
+    }
+
+    public void bookingAdded(BookedStay stay) {
+        TransactionCallbacks.afterCommit(() -> {
+            if (snapshot.addStay(stay)) {
+                searchCache.stayChanged(stay);
+            }
+        });
+    }
+
+    public void bookingRemoved(Long bookingId) {
+        TransactionCallbacks.afterCommit(() -> {
+            Snapshot current = snapshot;
+            Long roomId = current.bookingRooms.remove(bookingId);
+            RoomCalendar calendar = roomId != null ? current.calendars.get(roomId) : null;
+            BookedStay removed = calendar != null ? calendar.remove(bookingId) : null;
+            if (removed != null) {
+                searchCache.stayChanged(removed);
+            }
+        });
+    }
+
+    private record ChangeMarker(InventoryStamp rooms, BookingStamp bookings) {
+    }
+
+    private static final class Snapshot {
+
+        private final ChangeMarker marker;
+        private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+        private final Map<Long, Long> bookingRooms = new ConcurrentHashMap<>();
+
+        Snapshot(ChangeMarker marker) {
+            this.marker = marker;
+        }
+
+        boolean addStay(BookedStay stay) {
+            if (stay.checkInDate() == null || stay.checkOutDate() == null) {
+                return false;
+            }
+            RoomCalendar calendar = calendars.get(stay.roomId());
+            if (calendar == null) {
+                logger.warn("Booking {} references unknown room {}", stay.bookingId(), stay.roomId());
+                return false;
+            }
+            bookingRooms.put(stay.bookingId(), stay.roomId());
+            calendar.add(stay);
+            return true;
+        }
+    }
+
+    private static final class RoomCalendar {
+
+        private static final Comparator<BookedStay> BY_CHECK_IN = Comparator
+                .comparing(BookedStay::checkInDate)
+                .thenComparing(BookedStay::bookingId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final NavigableSet<BookedStay> stays = new TreeSet<>(BY_CHECK_IN);
+        private volatile String roomType;
+
+        // Longest stay ever indexed for this room. A stay can only overlap [checkIn, checkOut]
+        // if it starts no earlier than checkIn minus this many days, which bounds every scan.
+        private long longestStayDays;
+
+        RoomCalendar(String roomType) {
+            this.roomType = roomType;
+        }
+
+        void setRoomType(String roomType) {
+            this.roomType = roomType;
+        }
+
+        boolean matchesType(String wanted) {
+            String type = roomType;
+            return type != null && (wanted == null || type.contains(wanted));
+        }
+
+        synchronized void add(BookedStay stay) {
+            stays.add(stay);
+            longestStayDays = Math.max(longestStayDays,
+                    ChronoUnit.DAYS.between(stay.checkInDate(), stay.checkOutDate()));
+        }
+
+        synchronized BookedStay remove(Long bookingId) {
+            for (Iterator<BookedStay> it = stays.iterator(); it.hasNext(); ) {
+                BookedStay stay = it.next();
+                if (bookingId.equals(stay.bookingId())) {
+                    it.remove();
+                    return stay;
+                }
+            }
+            return null;
+        }
+
+        synchronized boolean isFree(LocalDate checkInDate, LocalDate checkOutDate) {
+            LocalDate earliestCheckIn = checkInDate.minusDays(longestStayDays);
+            if (earliestCheckIn.isAfter(checkOutDate)) {
+                return true;
+            }
+            BookedStay from = new BookedStay(null, null, earliestCheckIn, null);
+            BookedStay to = new BookedStay(Long.MAX_VALUE, null, checkOutDate, null);
+            for (BookedStay stay : stays.subSet(from, true, to, true)) {
+                if (!stay.checkOutDate().isBefore(checkInDate)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
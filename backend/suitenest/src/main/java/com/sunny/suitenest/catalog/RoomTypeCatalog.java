@@ -0,0 +1,74 @@
+package com.sunny.suitenest.catalog;
+
+import com.sunny.suitenest.datasource.ReadRouting;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.RoomTypeCount;
+import com.sunny.suitenest.transaction.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Room types and the number of rooms of each type, loaded with one grouped query and kept until a
+ * room is added, changed or deleted. The load reads the primary, since a replica may not have the
+ * change that emptied the cache yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomTypeCatalog {
+
+    private final RoomRepository roomRepository;
+
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long loadedGeneration = currentGeneration();
+        List<RoomTypeCount> counts = ReadRouting.onPrimary(roomRepository::countRoomsByType);
+        Snapshot loaded = new Snapshot(
+                counts.stream().map(RoomTypeCount::roomType).toList(), counts, eTag(counts));
+        store(loaded, loadedGeneration);
+        return loaded;
+    }
+
+    /**
+     * Drops the cached catalogue now and again after the surrounding transaction commits, so a
+     * catalogue read while the room change was still uncommitted is not kept.
+     */
+    public void invalidate() {
+        clear();
+        TransactionCallbacks.afterCommit(this::clear);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    // A load that raced with an invalidation is returned to its caller but not cached
+    private synchronized void store(Snapshot loaded, long loadedGeneration) {
+        if (generation == loadedGeneration) {
+            snapshot = loaded;
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        snapshot = null;
+    }
+
+    private static String eTag(List<RoomTypeCount> counts) {
+        StringBuilder content = new StringBuilder();
+        counts.forEach(count -> content.append(count.roomType()).append('\t').append(count.rooms()).append('\n'));
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public record Snapshot(List<String> roomTypes, List<RoomTypeCount> counts, String eTag) {
+    }
+}
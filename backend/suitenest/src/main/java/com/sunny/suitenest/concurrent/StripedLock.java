@@ -0,0 +1,48 @@
+package com.sunny.suitenest.concurrent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared out by key hash, so callers can serialize work per key
+ * without keeping a lock object alive for every key ever seen.
+ */
+public class StripedLock {
+
+    private final Lock[] stripes;
+
+    public StripedLock(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    /**
+     * The distinct locks for the given keys, in stripe order. Callers that hold several at once must
+     * lock them in this order so that two callers cannot deadlock.
+     */
+    public List<Lock> getAll(Collection<?> keys) {
+        return keys.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .mapToObj(index -> stripes[index])
+                .toList();
+    }
+
+    private int stripeIndex(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sunny.suitenest.config;
+
+import com.sunny.suitenest.datasource.ReplicaRoutingDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.DefaultLifecycleProcessor;
+import org.springframework.core.SpringProperties;
+
+/**
+ * The container image is trained for class data sharing by refreshing the context with
+ * spring.context.exit=onRefresh while it is built, when no database is reachable. Migrations are
+ * skipped in that run and applied on every normal start.
+ * <p>
+ * Read replicas receive the schema through replication. Stand-alone databases posing as replicas in
+ * local runs are migrated along with the primary when datasource.replica.migrate is set.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+            @Value("${datasource.replica.migrate:false}") boolean migrateReplicas) {
+        return flyway -> {
+            if (!isTrainingRun()) {
+                flyway.migrate();
+                if (migrateReplicas) {
+                    replicaRouting.ifAvailable(routing -> routing.getReplicas().forEach(replica ->
+                            Flyway.configure()
+                                    .configuration(flyway.getConfiguration())
+                                    .dataSource(replica)
+                                    .load()
+                                    .migrate()));
+                }
+            }
+        };
+    }
+
+    private static boolean isTrainingRun() {
+        return DefaultLifecycleProcessor.ON_REFRESH_VALUE.equals(
+                SpringProperties.getProperty(DefaultLifecycleProcessor.EXIT_PROPERTY_NAME));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sunny.suitenest.config;
+
+import com.sunny.suitenest.outbox.BookingEvent;
+import com.sunny.suitenest.repository.projection.BookedStay;
+import com.sunny.suitenest.repository.projection.BookingExportRow;
+import com.sunny.suitenest.repository.projection.BookingStamp;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.repository.projection.RoomTypeCount;
+import com.sunny.suitenest.repository.projection.RoomTypeView;
+import com.sunny.suitenest.repository.projection.RoomVersion;
+import com.sunny.suitenest.response.BookingResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection a native image cannot discover on its own: JPQL constructor expressions, outbox payloads
+ * written by Jackson, the jjwt implementation classes that the jjwt API loads by name, and the classes
+ * named in logback-spring.xml.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(BookedStay.class, BookingExportRow.class, BookingStamp.class, BookingSummary.class,
+                        InventoryStamp.class, RoomSummary.class, RoomTypeCount.class, RoomTypeView.class,
+                        RoomVersion.class, BookingResponse.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        hints.reflection().registerType(BookingEvent.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        Stream.of("io.jsonwebtoken.impl.DefaultJwtBuilder",
+                        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                        "io.jsonwebtoken.impl.DefaultClaims")
+                .forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        Stream.of("com.sunny.suitenest.logging.SqlTraceTurboFilter",
+                        "net.logstash.logback.encoder.LogstashEncoder",
+                        "net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender")
+                .forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+}
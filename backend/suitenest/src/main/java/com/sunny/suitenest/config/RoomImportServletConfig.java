@@ -0,0 +1,40 @@
+package com.sunny.suitenest.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Room import archives (POST /rooms/import) are far larger than any other upload. The servlet container
+ * applies multipart limits per servlet, so the import path gets a DispatcherServlet of its own, sharing
+ * the application context, with rooms.import.max-size as its limit. Every other path keeps the global
+ * spring.servlet.multipart limits.
+ */
+@Configuration
+public class RoomImportServletConfig {
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> roomImportServlet(
+            WebApplicationContext applicationContext,
+            MultipartProperties multipartProperties,
+            @Value("${rooms.import.max-size:1GB}") DataSize maxSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(applicationContext), "/rooms/import");
+        registration.setName("roomImportServlet");
+        registration.setLoadOnStartup(1);
+        registration.setAsyncSupported(true);
+        // Same spooling to disk as the global configuration, only the size limits differ
+        registration.setMultipartConfig(new MultipartConfigElement(
+                multipartProperties.getLocation(),
+                maxSize.toBytes(),
+                maxSize.toBytes(),
+                (int) multipartProperties.getFileSizeThreshold().toBytes()));
+        return registration;
+    }
+}
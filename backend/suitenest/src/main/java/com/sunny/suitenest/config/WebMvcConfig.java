@@ -0,0 +1,34 @@
+package com.sunny.suitenest.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * CorsConfig enables MVC by hand with @EnableWebMvc, so Spring Boot's spring.mvc.async settings
+ * are not applied. Streamed responses (photos, booking exports) are configured here instead; booking
+ * exports then move to their own threads, see BookingExportExecutor.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final Duration asyncRequestTimeout;
+
+    public WebMvcConfig(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                        @Value("${web.async.request-timeout:30m}") Duration asyncRequestTimeout) {
+        this.taskExecutor = taskExecutor;
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+}
@@ -1,20 +1,33 @@
 package com.sunny.suitenest.controller;
 
+import com.sunny.suitenest.exception.BulkBookingConflictException;
 import com.sunny.suitenest.exception.InvalidBookingRequestException;
+import com.sunny.suitenest.exception.InvalidPageRequestException;
 import com.sunny.suitenest.exception.ResourceNotFoundException;
+import com.sunny.suitenest.export.BookingExportExecutor;
 import com.sunny.suitenest.model.BookedRoom;
-import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.pagination.PageCursor;
+import com.sunny.suitenest.request.BulkBookingRequest;
 import com.sunny.suitenest.response.BookingResponse;
-import com.sunny.suitenest.response.RoomResponse;
+import com.sunny.suitenest.response.BulkBookingResponse;
+import com.sunny.suitenest.response.ExportFormat;
 import com.sunny.suitenest.service.impl.BookingServiceImpl;
-import com.sunny.suitenest.service.impl.RoomServiceImpl;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -22,19 +35,61 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
+
     private final BookingServiceImpl bookingService;
-    private final RoomServiceImpl roomService;
+    private final BookingExportExecutor exportExecutor;
 
     @GetMapping("/all-bookings")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<BookedRoom> bookings = bookingService.getAllBookings();
-        List<BookingResponse> bookingResponses = new ArrayList<>();
-        for (BookedRoom booking : bookings) {
-            BookingResponse bookingResponse = getBookingResponse(booking);
-            bookingResponses.add(bookingResponse);
+        return ResponseEntity.ok(bookingService.getAllBookingResponses());
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getBookingPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PageCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "guestEmail", required = false) String guestEmail,
+            @RequestParam(value = "fromDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(value = "toDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(value = "roomType", required = false) String roomType) {
+        try {
+            return ResponseEntity.ok(
+                    bookingService.getBookingResponsePage(cursor, limit, guestEmail, fromDate, toDate, roomType));
+        } catch (InvalidPageRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.ok(bookingResponses);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(value = "fromDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(value = "toDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(value = "roomId", required = false) Long roomId,
+            @RequestParam(value = "roomType", required = false) String roomType,
+            WebRequest webRequest) {
+        exportExecutor.streamResponse(webRequest);
+        StreamingResponseBody body = out -> {
+            long count = bookingService.exportBookings(format, fromDate, toDate, roomId, roomType, out);
+            logger.info("Exported {} bookings as {}", count, format);
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + format.getFileExtension()).build().toString())
+                .body(body);
+    }
+
+    // The export executor turns requests away once it is full, after exportBookings has returned
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> exportsBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body("Too many booking exports are running, please try again later.");
     }
 
     @PostMapping("/room/{roomId}/booking")
@@ -49,6 +104,18 @@ public class BookingController {
         }
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> saveBookings(@Valid @RequestBody BulkBookingRequest bookingRequest) {
+        try {
+            return ResponseEntity.ok(bookingService.saveBookings(bookingRequest));
+        } catch (BulkBookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new BulkBookingResponse(List.of(), e.getConflicts()));
+        } catch (InvalidBookingRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/booking/{bookingId}/delete")
     public void cancelBooking(@PathVariable Long bookingId) {
         bookingService.cancelBooking(bookingId);
@@ -57,8 +124,7 @@ public class BookingController {
     @GetMapping("/confirmation/{confirmationCode}")
     public ResponseEntity<?> getBookingByConfirmationCode(@PathVariable String confirmationCode){
         try {
-            BookedRoom booking = bookingService.findByBookingConfirmationCode(confirmationCode);
-            BookingResponse bookingResponse = getBookingResponse(booking);
+            BookingResponse bookingResponse = bookingService.findBookingResponseByConfirmationCode(confirmationCode);
             return ResponseEntity.ok(bookingResponse);
         } catch (NullPointerException | ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -67,27 +133,6 @@ public class BookingController {
 
     @GetMapping("/user/{email}/bookings")
     public ResponseEntity<List<BookingResponse>> getBookingsByUserEmail(@PathVariable String email) {
-        List<BookedRoom> bookings = bookingService.getBookingsByUserEmail(email);
-        List<BookingResponse> bookingResponses = new ArrayList<>();
-        for (BookedRoom booking : bookings) {
-            BookingResponse bookingResponse = getBookingResponse(booking);
-            bookingResponses.add(bookingResponse);
-        }
-        return ResponseEntity.ok(bookingResponses);
-    }
-
-    private BookingResponse getBookingResponse(BookedRoom booking) {
-        Room room = roomService.getRoomById(booking.getRoom().getId()).get();
-        RoomResponse roomResponse = new RoomResponse(
-                room.getId(),
-                room.getRoomType(),
-                room.getRoomPrice());
-        return new BookingResponse(
-                booking.getBookingId(), booking.getCheckInDate(),
-                booking.getCheckOutDate(), booking.getGuestFullName(),
-                booking.getGuestEmail(), booking.getNumOfAdults(),
-                booking.getNumOfChildren(), booking.getTotalNumOfGuest(),
-                booking.getBookingConfirmationCode(), roomResponse);
-
+        return ResponseEntity.ok(bookingService.getBookingResponsesByUserEmail(email));
     }
 }
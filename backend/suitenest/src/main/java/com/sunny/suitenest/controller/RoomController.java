@@ -1,35 +1,56 @@
 package com.sunny.suitenest.controller;
 
+import com.sunny.suitenest.catalog.RoomTypeCatalog;
 import com.sunny.suitenest.exception.InternalServerException;
+import com.sunny.suitenest.exception.InvalidPageRequestException;
+import com.sunny.suitenest.exception.InvalidRoomImportException;
 import com.sunny.suitenest.exception.PhotoRetreivalException;
 import com.sunny.suitenest.exception.ResourceNotFoundException;
-import com.sunny.suitenest.model.BookedRoom;
 import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.pagination.PageCursor;
+import com.sunny.suitenest.photo.RoomPhoto;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.repository.projection.RoomTypeCount;
+import com.sunny.suitenest.repository.projection.RoomVersion;
 import com.sunny.suitenest.response.BookingResponse;
+import com.sunny.suitenest.response.CursorPage;
+import com.sunny.suitenest.response.PhotoMode;
 import com.sunny.suitenest.response.RoomResponse;
+import com.sunny.suitenest.service.RoomService;
 import com.sunny.suitenest.service.impl.BookingServiceImpl;
 import com.sunny.suitenest.service.impl.RoomServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.apache.tomcat.util.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
-import java.sql.Blob;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -38,45 +59,97 @@ import java.util.Optional;
 public class RoomController {
 
     private static final Logger logger = LoggerFactory.getLogger(RoomController.class);
+    private static final CacheControl PHOTO_CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
     private final RoomServiceImpl roomService;
     private final BookingServiceImpl bookingService;
+    private final MeterRegistry meterRegistry;
+
+    // Single photos are held to this whatever the multipart limits are
+    @Value("${photo.max-size}")
+    private DataSize maxPhotoSize;
 
     @PostMapping("/add/new-room")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<RoomResponse> addNewRoom(@RequestParam("photo") MultipartFile photo,
                                                    @RequestParam("roomType") String roomType,
                                                    @RequestParam("roomPrice") BigDecimal roomPrice) throws SQLException, IOException {
+        if (photo.getSize() > maxPhotoSize.toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
         Room savedRoom = roomService.addNewRoom(photo, roomType, roomPrice);
         RoomResponse response = new RoomResponse(savedRoom.getId(), savedRoom.getRoomType(), savedRoom.getRoomPrice());
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> importRooms(@RequestParam("manifest") MultipartFile manifest,
+                                         @RequestParam("photos") MultipartFile photos) throws IOException {
+        try {
+            return ResponseEntity.ok(roomService.importRooms(manifest, photos));
+        } catch (InvalidRoomImportException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/room/types")
-    public List<String> getRoomTypes() {
-        return roomService.getAllRoomTypes();
+    public ResponseEntity<List<String>> getRoomTypes(ServletWebRequest webRequest) {
+        RoomTypeCatalog.Snapshot catalog = roomService.getRoomTypeCatalog();
+        if (webRequest.checkNotModified(catalog.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(catalog.roomTypes());
+    }
+
+    @GetMapping("/room/types/counts")
+    public ResponseEntity<List<RoomTypeCount>> getRoomTypeCounts(ServletWebRequest webRequest) {
+        RoomTypeCatalog.Snapshot catalog = roomService.getRoomTypeCatalog();
+        if (webRequest.checkNotModified(catalog.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(catalog.counts());
     }
 
     @GetMapping("/all-rooms")
-    public ResponseEntity<List<RoomResponse>> getAllRooms() throws SQLException {
-        logger.info("Fetching all rooms");
+    public ResponseEntity<List<RoomResponse>> getAllRooms(
+            @RequestParam(value = "photoMode", defaultValue = "INLINE") PhotoMode photoMode,
+            ServletWebRequest webRequest) throws SQLException {
+        // Revalidation is answered before any listing query, photo read or serialization
+        InventoryStamp stamp = roomService.getInventoryStamp();
+        if (webRequest.checkNotModified(stamp.eTag(photoMode.name()), stamp.lastModifiedMillis())) {
+            return null;
+        }
         List<RoomResponse> roomResponses = new ArrayList<>();
         try {
-            List<Room> rooms = roomService.getAllRooms();
-            for (Room room : rooms) {
-                logger.info("Processing room with ID: {}, Type: {}, Price: {}", room.getId(), room.getRoomType(), room.getRoomPrice());
-
-                byte[] photoBytes = roomService.getRoomPhotoByRoomId(room.getId());
+            // Tagged with the stamp read alongside the rooms, which may be newer than the one checked above
+            RoomService.RoomListing listing = roomService.getRoomListing();
+            Map<Long, List<BookingSummary>> bookingsByRoom = listing.bookingsByRoom();
+            for (RoomSummary room : listing.rooms()) {
+                if (photoMode == PhotoMode.URL) {
+                    roomResponses.add(getRoomResponse(room, bookingsByRoom));
+                    continue;
+                }
+                byte[] photoBytes = roomService.getRoomPhotoByKey(room.photoKey());
                 if (photoBytes != null && photoBytes.length > 0) {
                     String base64Photo = Base64.encodeBase64String(photoBytes);
 
-                    RoomResponse roomResponse = getRoomResponse(room);
+                    RoomResponse roomResponse = getRoomResponse(room, bookingsByRoom);
                     roomResponse.setPhoto(base64Photo);
                     roomResponses.add(roomResponse);
                 }
             }
-            logger.info("Successfully fetched {} rooms", roomResponses.size());
-            return ResponseEntity.ok(roomResponses);
+            logger.debug("Fetched {} rooms with photo mode {}", roomResponses.size(), photoMode);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(listing.stamp().eTag(photoMode.name()))
+                    .lastModified(listing.stamp().lastModifiedMillis())
+                    .body(roomResponses);
         } catch (PhotoRetreivalException e) {
             logger.error("Error fetching room photo: {}", e.getMessage(), e);
             return ResponseEntity.status(500).build();
@@ -99,19 +172,21 @@ public class RoomController {
                                                    @RequestParam(required = false) String roomType,
                                                    @RequestParam(required = false) BigDecimal roomPrice,
                                                    @RequestParam(required = false) MultipartFile photo) throws SQLException, IOException, InternalServerException {
+        if (photo != null && photo.getSize() > maxPhotoSize.toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
 
         byte[] photoBytes = photo != null && !photo.isEmpty()
                 ? photo.getBytes()
-                : roomService.getRoomPhotoByRoomId(roomId);
-
-        Blob photoBlob = photoBytes != null && photoBytes.length > 0
-                ? new SerialBlob(photoBytes)
                 : null;
 
         Room room = roomService.updateRoom(roomId, roomType, roomPrice, photoBytes);
-        room.setPhoto(photoBlob);
+        if (photoBytes == null) {
+            photoBytes = roomService.getRoomPhotoByKey(room.getPhotoKey());
+        }
 
-        RoomResponse roomResponse = getRoomResponse(room);
+        List<RoomSummary> rooms = List.of(RoomSummary.from(room));
+        RoomResponse roomResponse = getRoomResponse(rooms.get(0), getBookingsByRoom(rooms));
 
         String base64Photo = Base64.encodeBase64String(photoBytes);
         roomResponse.setPhoto(base64Photo);
@@ -119,13 +194,20 @@ public class RoomController {
     }
 
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<Optional<RoomResponse>> getRoomById(@PathVariable Long roomId) throws SQLException {
-        Room room = roomService.getRoomById(roomId)
+    public ResponseEntity<Optional<RoomResponse>> getRoomById(@PathVariable Long roomId,
+                                                              ServletWebRequest webRequest) throws SQLException {
+        RoomVersion version = roomService.getRoomVersion(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found!"));
-        RoomResponse roomResponse = getRoomResponse(room);
+        if (webRequest.checkNotModified(version.eTag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        // Tagged with the version the room was read at, which may be newer than the one checked above
+        RoomService.RoomDetail detail = roomService.getRoomDetail(roomId);
+        Room room = detail.room();
+        RoomResponse roomResponse = getRoomResponse(RoomSummary.from(room), Map.of(roomId, detail.bookings()));
 
         try {
-            byte[] photoBytes = roomService.getRoomPhotoByRoomId(roomId);
+            byte[] photoBytes = roomService.getRoomPhotoByKey(room.getPhotoKey());
             if (photoBytes != null && photoBytes.length > 0) {
                 String base64Photo = Base64.encodeBase64String(photoBytes);
                 roomResponse.setPhoto(base64Photo);
@@ -138,56 +220,124 @@ public class RoomController {
             return ResponseEntity.status(500).build();
         }
 
-        return ResponseEntity.ok(Optional.of(roomResponse));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(detail.version().eTag())
+                .lastModified(detail.version().lastModified())
+                .body(Optional.of(roomResponse));
     }
 
     @GetMapping("/available-rooms")
     public ResponseEntity<List<RoomResponse>> getAvailableRooms(
             @RequestParam("checkInDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
             @RequestParam("checkOutDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
-            @RequestParam("roomType") String roomType) throws SQLException {
-
-        List<Room> availableRooms = roomService.getAvailableRooms(checkInDate, checkOutDate, roomType);
-        List<RoomResponse> roomResponses = new ArrayList<>();
+            @RequestParam("roomType") String roomType,
+            @RequestParam(value = "photoMode", defaultValue = "INLINE") PhotoMode photoMode) throws SQLException {
 
-        for (Room room : availableRooms) {
-            byte[] photoBytes = roomService.getRoomPhotoByRoomId(room.getId());
-            String photoBase64 = (photoBytes != null && photoBytes.length > 0)
-                    ? Base64.encodeBase64String(photoBytes)
-                    : null;
-            RoomResponse roomResponse = getRoomResponse(room);
-            roomResponse.setPhoto(photoBase64);
-            roomResponses.add(roomResponse);
-        }
+        List<RoomSummary> availableRooms = roomService.getAvailableRooms(checkInDate, checkOutDate, roomType);
+        List<RoomResponse> roomResponses = getRoomResponses(availableRooms, photoMode);
         if (roomResponses.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(roomResponses);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getRoomPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + PageCursor.DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "roomType", required = false) String roomType,
+            @RequestParam(value = "checkInDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(value = "checkOutDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(value = "photoMode", defaultValue = "URL") PhotoMode photoMode) {
+        try {
+            CursorPage<RoomSummary> page = roomService.getRoomPage(cursor, limit, roomType, checkInDate, checkOutDate);
+            return ResponseEntity.ok(page.map(rooms -> getRoomResponses(rooms, photoMode)));
+        } catch (InvalidPageRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-    private RoomResponse getRoomResponse(Room room) {
-        List<BookedRoom> bookings = getAllBookingsByRoomId(room.getId());
+    @GetMapping("/{roomId}/photo")
+    public ResponseEntity<StreamingResponseBody> getRoomPhoto(@PathVariable Long roomId, ServletWebRequest webRequest) {
+        RoomPhoto photo;
+        try {
+            photo = roomService.getRoomPhoto(roomId);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        // checkNotModified also writes the ETag header on the 200 response
+        if (webRequest.checkNotModified(photo.eTag())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(photo.contentType()))
+                .contentLength(photo.contentLength())
+                .cacheControl(PHOTO_CACHE_CONTROL);
+
+        // Let Tomcat hand the file straight to the socket when the connector supports sendfile
+        Optional<Path> photoFile = roomService.getRoomPhotoFile(photo);
+        HttpServletRequest request = webRequest.getRequest();
+        if (photoFile.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, photoFile.get().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, photo.contentLength());
+            meterRegistry.summary(RoomServiceImpl.PHOTO_BYTES_SERVED, "mode", "sendfile").record(photo.contentLength());
+            return response.build();
+        }
+        return response.body(out -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            roomService.writeRoomPhoto(photo, out);
+            sample.stop(meterRegistry.timer(RoomServiceImpl.PHOTO_READ_TIMER, "mode", "stream"));
+            meterRegistry.summary(RoomServiceImpl.PHOTO_BYTES_SERVED, "mode", "stream").record(photo.contentLength());
+        });
+    }
+
+
+    private List<RoomResponse> getRoomResponses(List<RoomSummary> rooms, PhotoMode photoMode) {
+        Map<Long, List<BookingSummary>> bookingsByRoom = getBookingsByRoom(rooms);
+        List<RoomResponse> roomResponses = new ArrayList<>();
+        for (RoomSummary room : rooms) {
+            RoomResponse roomResponse = getRoomResponse(room, bookingsByRoom);
+            if (photoMode == PhotoMode.INLINE) {
+                byte[] photoBytes = roomService.getRoomPhotoByKey(room.photoKey());
+                String photoBase64 = (photoBytes != null && photoBytes.length > 0)
+                        ? Base64.encodeBase64String(photoBytes)
+                        : null;
+                roomResponse.setPhoto(photoBase64);
+            }
+            roomResponses.add(roomResponse);
+        }
+        return roomResponses;
+    }
+
+    private RoomResponse getRoomResponse(RoomSummary room, Map<Long, List<BookingSummary>> bookingsByRoom) {
+        List<BookingSummary> bookings = bookingsByRoom.getOrDefault(room.id(), List.of());
         List<BookingResponse> bookingInfo = bookings
                 .stream()
                 .map(booking -> new BookingResponse(
-                        booking.getBookingId(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate(),
-                        booking.getBookingConfirmationCode())).toList();
+                        booking.bookingId(),
+                        booking.checkInDate(),
+                        booking.checkOutDate(),
+                        booking.bookingConfirmationCode())).toList();
 
         byte[] photoBytes = null;
-        return new RoomResponse(
-                room.getId(),
-                room.getRoomType(),
-                room.getRoomPrice(),
+        RoomResponse roomResponse = new RoomResponse(
+                room.id(),
+                room.roomType(),
+                room.roomPrice(),
                 room.isBooked(),
                 photoBytes,
                 bookingInfo);
+        if (room.photoKey() != null) {
+            roomResponse.setPhotoUrl("/rooms/" + room.id() + "/photo?v=" + room.photoKey().substring(0, 16));
+        }
+        return roomResponse;
     }
 
-    private List<BookedRoom> getAllBookingsByRoomId(Long roomId) {
-        return bookingService.getAllBookingsByRoomId(roomId);
+    private Map<Long, List<BookingSummary>> getBookingsByRoom(List<RoomSummary> rooms) {
+        return bookingService.getBookingSummariesByRoomIds(rooms.stream().map(RoomSummary::id).toList());
     }
 
 }
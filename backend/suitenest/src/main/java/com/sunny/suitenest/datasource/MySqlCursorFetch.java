@@ -0,0 +1,33 @@
+package com.sunny.suitenest.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * MySQL Connector/J reads a whole result set into memory before returning the first row, whatever fetch
+ * size the statement asks for, unless useCursorFetch is set. With it, statements that set a fetch size
+ * (the booking export) read through a server-side cursor, that many rows at a time; statements that
+ * do not are unchanged. Other databases honour the fetch size as it is and are left alone.
+ */
+@Component
+public class MySqlCursorFetch implements BeanPostProcessor {
+
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            enable(dataSource);
+        }
+        return bean;
+    }
+
+    /** For pools that are not beans, such as the read replicas. */
+    static void enable(HikariDataSource dataSource) {
+        String url = dataSource.getJdbcUrl();
+        if (url != null && url.startsWith(MYSQL_URL_PREFIX)) {
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+    }
+}
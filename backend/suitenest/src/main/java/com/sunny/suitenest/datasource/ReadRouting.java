@@ -0,0 +1,46 @@
+package com.sunny.suitenest.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the read-only transactions of the current thread on the primary database instead of a read
+ * replica. Used for reads that must see the latest commits: results that are cached until the next
+ * change, and requests from users who have just written.
+ * <p>
+ * A transaction picks its database when it runs its first statement, so the pin has to be in place
+ * by then; a transaction that has already read from a replica stays there.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+
+    /** Pins reads to the primary until the returned pin is closed. Pins nest. */
+    public static Pin pinToPrimary() {
+        PRIMARY_DEPTH.get()[0]++;
+        return () -> {
+            int[] depth = PRIMARY_DEPTH.get();
+            if (--depth[0] == 0) {
+                PRIMARY_DEPTH.remove();
+            }
+        };
+    }
+
+    public static <T> T onPrimary(Supplier<T> read) {
+        try (Pin ignored = pinToPrimary()) {
+            return read.get();
+        }
+    }
+
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
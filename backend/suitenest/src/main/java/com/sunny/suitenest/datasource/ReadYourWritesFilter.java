@@ -0,0 +1,76 @@
+package com.sunny.suitenest.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sends all reads of a client to the primary for a short window after it writes, so a guest who has
+ * just booked sees the booking even while the replicas are behind. The client carries the window in a
+ * cookie that expires with it, signed in or not, so it holds on whichever node behind the load balancer
+ * serves the next request. The web client sends cookies with its cross-origin calls, which CORS allows.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "SUITENEST_RECENT_WRITE";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // A write counts from the moment it is attempted: the response may reach the client, and the
+        // client send its next read, before this filter gets control back.
+        boolean pinned = isWrite(request);
+        if (pinned) {
+            recordWrite(response);
+        } else {
+            pinned = hasRecentWriteCookie(request);
+        }
+        if (!pinned) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReadRouting.Pin ignored = ReadRouting.pinToPrimary()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void recordWrite(HttpServletResponse response) {
+        Cookie cookie = new Cookie(COOKIE_NAME, "1");
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        response.addCookie(cookie);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS", "TRACE" -> false;
+            default -> true;
+        };
+    }
+
+    private static boolean hasRecentWriteCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
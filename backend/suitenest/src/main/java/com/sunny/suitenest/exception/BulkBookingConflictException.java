@@ -0,0 +1,17 @@
+package com.sunny.suitenest.exception;
+
+import com.sunny.suitenest.response.BulkBookingResponse;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BulkBookingConflictException extends RuntimeException {
+
+    private final List<BulkBookingResponse.Conflict> conflicts;
+
+    public BulkBookingConflictException(List<BulkBookingResponse.Conflict> conflicts) {
+        super(conflicts.size() + " of the requested bookings cannot be made");
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,8 @@
+package com.sunny.suitenest.exception;
+
+public class InvalidRoomImportException extends RuntimeException {
+
+    public InvalidRoomImportException(String message) {
+        super(message);
+    }
+}
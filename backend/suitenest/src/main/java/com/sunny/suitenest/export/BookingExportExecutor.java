@@ -0,0 +1,44 @@
+package com.sunny.suitenest.export;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Threads that stream booking exports. An export holds a database cursor and a connection for as long as
+ * the client takes to download it, so exports get a small pool of their own: they cannot use up the
+ * shared async executor that photos are streamed on, and exports beyond the pool and its queue are
+ * turned away instead of piling up.
+ * <p>
+ * Not an Executor bean, which would make Spring Boot back off from creating applicationTaskExecutor.
+ */
+@Component
+public class BookingExportExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public BookingExportExecutor(@Value("${bookings.export.concurrency:2}") int concurrency,
+                                 @Value("${bookings.export.queue-capacity:8}") int queueCapacity) {
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-export-");
+        executor.initialize();
+    }
+
+    /**
+     * Streams the StreamingResponseBody returned for the current request on the export threads. A request
+     * that finds the pool and its queue full fails with a TaskRejectedException.
+     */
+    public void streamResponse(WebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).setTaskExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+package com.sunny.suitenest.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sunny.suitenest.repository.projection.BookingExportRow;
+import com.sunny.suitenest.response.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes booking export rows one at a time as they come off the database cursor,
+ * so the size of an export never shows up on the heap.
+ */
+@Component
+public class BookingExportWriter {
+
+    private static final String CSV_HEADER = "booking_id,check_in,check_out,guest_full_name,guest_email," +
+            "adults,children,total_guest,confirmation_code,room_id,room_type,room_price";
+
+    private final ObjectWriter jsonWriter;
+
+    public BookingExportWriter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public long write(ExportFormat format, Stream<BookingExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        Iterator<BookingExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            BookingExportRow row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writer.write(jsonWriter.writeValueAsString(row));
+            }
+            writer.write('\n');
+            count++;
+        }
+        // Flush, but leave the response stream for the container to close
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, BookingExportRow row) throws IOException {
+        Object[] values = {
+                row.bookingId(), row.checkInDate(), row.checkOutDate(), row.guestFullName(), row.guestEmail(),
+                row.numOfAdults(), row.numOfChildren(), row.totalNumOfGuest(), row.bookingConfirmationCode(),
+                row.roomId(), row.roomType(), row.roomPrice()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,298 @@
+package com.sunny.suitenest.inventory;
+
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.catalog.RoomTypeCatalog;
+import com.sunny.suitenest.exception.InvalidRoomImportException;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.photo.ImageTypes;
+import com.sunny.suitenest.photo.PhotoStore;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.response.RoomImportResponse;
+import com.sunny.suitenest.response.RoomImportResponse.RowError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports rooms from a CSV manifest with the columns room_type, room_price and photo, where photo names
+ * an entry of a zip archive. The archive is read entry by entry and each referenced photo is streamed
+ * straight into the {@link PhotoStore}, so no photo is ever held in memory. Rooms are then inserted in
+ * JDBC-sized batches, one transaction per batch. Rows that fail are reported and the rest imported.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomInventoryImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomInventoryImporter.class);
+
+    private static final String IMPORT_TIMER = "suitenest.rooms.import";
+    private static final List<String> COLUMNS = List.of("room_type", "room_price", "photo");
+    private static final int MAX_RECORD_LENGTH = 4096;
+    private static final int MAX_ROOM_TYPE_LENGTH = 255;
+
+    private final RoomRepository roomRepository;
+    private final EntityManager entityManager;
+    private final PhotoStore photoStore;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rooms.import.max-rows}")
+    private int maxRows;
+    @Value("${photo.max-size}")
+    private DataSize maxPhotoSize;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    public RoomImportResponse importRooms(InputStream manifest, InputStream photoArchive) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<RowError> errors = new ArrayList<>();
+
+        List<ManifestRow> rows = readManifest(manifest, errors);
+        Set<String> photoNames = new HashSet<>();
+        rows.forEach(row -> photoNames.add(row.photo()));
+        Map<String, String> photoErrors = new HashMap<>();
+        Map<String, String> photoKeys = storePhotos(photoArchive, photoNames, photoErrors);
+
+        List<ManifestRow> accepted = new ArrayList<>();
+        for (ManifestRow row : rows) {
+            if (photoErrors.containsKey(row.photo())) {
+                errors.add(new RowError(row.line(), "Photo " + row.photo() + " " + photoErrors.get(row.photo())));
+            } else if (!photoKeys.containsKey(row.photo())) {
+                errors.add(new RowError(row.line(), "Photo " + row.photo() + " is not in the archive"));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        int imported = 0;
+        for (int from = 0; from < accepted.size(); from += batchSize) {
+            List<ManifestRow> batch = accepted.subList(from, Math.min(from + batchSize, accepted.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveRooms(batch, photoKeys));
+                imported += batch.size();
+            } catch (DataAccessException | TransactionException e) {
+                logger.warn("Could not save rooms from manifest lines {}-{}: {}",
+                        batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMostSpecificCause().getMessage());
+                batch.forEach(row -> errors.add(new RowError(row.line(), "Room could not be saved")));
+            }
+        }
+        if (imported > 0) {
+            roomTypeCatalog.invalidate();
+        }
+
+        errors.sort(Comparator.comparingInt(RowError::getLine));
+        sample.stop(meterRegistry.timer(IMPORT_TIMER));
+        logger.info("Imported {} rooms, {} manifest rows rejected", imported, errors.size());
+        return new RoomImportResponse(imported, errors);
+    }
+
+    private List<ManifestRow> readManifest(InputStream manifest, List<RowError> errors) throws IOException {
+        CsvReader reader = new CsvReader(
+                new BufferedReader(new InputStreamReader(manifest, StandardCharsets.UTF_8)), MAX_RECORD_LENGTH);
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new InvalidRoomImportException("Manifest is empty");
+        }
+        List<String> names = header.stream().map(name -> name.trim().toLowerCase()).toList();
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new InvalidRoomImportException("Manifest header must name the columns " + String.join(", ", COLUMNS));
+            }
+        }
+
+        List<ManifestRow> rows = new ArrayList<>();
+        int records = 0;
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (++records > maxRows) {
+                throw new InvalidRoomImportException("Manifest has more than " + maxRows + " rows");
+            }
+            int line = reader.line();
+            String roomType = field(record, columns[0]);
+            String price = field(record, columns[1]);
+            String photo = field(record, columns[2]);
+
+            String error = validate(roomType, price, photo);
+            if (error != null) {
+                errors.add(new RowError(line, error));
+            } else {
+                rows.add(new ManifestRow(line, roomType, new BigDecimal(price), photo));
+            }
+        }
+        return rows;
+    }
+
+    private static String validate(String roomType, String price, String photo) {
+        if (roomType.isEmpty()) {
+            return "room_type is required";
+        }
+        if (roomType.length() > MAX_ROOM_TYPE_LENGTH) {
+            return "room_type is longer than " + MAX_ROOM_TYPE_LENGTH + " characters";
+        }
+        BigDecimal roomPrice;
+        try {
+            roomPrice = new BigDecimal(price);
+        } catch (NumberFormatException e) {
+            return "room_price is not a number";
+        }
+        if (roomPrice.signum() <= 0) {
+            return "room_price must be greater than zero";
+        }
+        if (roomPrice.scale() > 2) {
+            return "room_price has more than two decimal places";
+        }
+        if (photo.isEmpty()) {
+            return "photo is required";
+        }
+        return null;
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < record.size() ? record.get(column).trim() : "";
+    }
+
+    private Map<String, String> storePhotos(InputStream photoArchive, Set<String> photoNames,
+                                            Map<String, String> photoErrors) throws IOException {
+        Map<String, String> photoKeys = new HashMap<>();
+        int entries = 0;
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(photoArchive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries++;
+                String name = entry.getName();
+                if (entry.isDirectory() || !photoNames.contains(name) || photoKeys.containsKey(name)) {
+                    continue;
+                }
+                try {
+                    String photoKey = storePhoto(zip);
+                    if (photoKey == null) {
+                        photoErrors.put(name, "is not a JPEG, PNG, GIF or WebP image");
+                    } else {
+                        photoKeys.put(name, photoKey);
+                    }
+                } catch (PhotoTooLargeException e) {
+                    photoErrors.put(name, "is larger than " + maxPhotoSize.toMegabytes() + " MB");
+                }
+            }
+        } catch (ZipException e) {
+            throw new InvalidRoomImportException("Photo archive is not a valid zip file: " + e.getMessage());
+        }
+        if (entries == 0 && !photoNames.isEmpty()) {
+            throw new InvalidRoomImportException("Photo archive is empty or not a zip file");
+        }
+        return photoKeys;
+    }
+
+    private String storePhoto(ZipInputStream zip) throws IOException {
+        InputStream photo = new BufferedInputStream(new ZipEntryInputStream(zip, maxPhotoSize.toBytes()));
+        photo.mark(ImageTypes.HEADER_LENGTH);
+        byte[] header = photo.readNBytes(ImageTypes.HEADER_LENGTH);
+        if (MediaType.APPLICATION_OCTET_STREAM_VALUE.equals(ImageTypes.detect(header))) {
+            return null;
+        }
+        photo.reset();
+        return photoStore.put(photo);
+    }
+
+    private void saveRooms(List<ManifestRow> rows, Map<String, String> photoKeys) {
+        List<Room> rooms = new ArrayList<>(rows.size());
+        for (ManifestRow row : rows) {
+            Room room = new Room();
+            room.setRoomType(row.roomType());
+            room.setRoomPrice(row.roomPrice());
+            room.setPhotoKey(photoKeys.get(row.photo()));
+            rooms.add(room);
+        }
+        roomRepository.saveAll(rooms);
+        // The request may hold one persistence context across all batches (open-in-view); keep it empty
+        roomRepository.flush();
+        entityManager.clear();
+        rooms.forEach(room -> availabilityIndex.roomSaved(room.getId(), room.getRoomType()));
+    }
+
+    private record ManifestRow(int line, String roomType, BigDecimal roomPrice, String photo) {
+    }
+
+    private static final class PhotoTooLargeException extends IOException {
+    }
+
+    /**
+     * The current archive entry, cut off after maxBytes. Closing it leaves the archive open, since the
+     * photo store closes what it is given.
+     */
+    private static final class ZipEntryInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long read;
+
+        ZipEntryInputStream(ZipInputStream zip, long maxBytes) {
+            super(zip);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void count(int n) throws PhotoTooLargeException {
+            read += n;
+            if (read > maxBytes) {
+                throw new PhotoTooLargeException();
+            }
+        }
+    }
+}
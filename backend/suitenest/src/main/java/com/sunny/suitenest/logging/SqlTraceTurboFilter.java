@@ -0,0 +1,25 @@
+package com.sunny.suitenest.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Turns on Hibernate's SQL statement log for requests marked by {@link SqlTraceFilter}, whatever the
+ * configured level of org.hibernate.SQL. Registered in logback-spring.xml.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (SQL_LOGGER.equals(logger.getName()) && MDC.get(SqlTraceFilter.MDC_KEY) != null) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sunny.suitenest.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates sequences for Hibernate's pooled optimizer on tables that already hold rows. Written in Java
+ * because the start value depends on the rows present, and setting it after the fact is not portable.
+ * <p>
+ * MySQL has no sequences; there Hibernate emulates one with a single-row table, which is created instead.
+ */
+public abstract class PooledSequenceMigration extends BaseJavaMigration {
+
+    /** Must match the allocationSize of the entity's @SequenceGenerator. */
+    public static final int ALLOCATION_SIZE = 50;
+
+    protected void createSequence(Context context, String sequence, String table, String idColumn) throws SQLException {
+        String database = context.getConnection().getMetaData().getDatabaseProductName();
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table)) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            // The pooled optimizer hands out (value - ALLOCATION_SIZE, value] for each value it reads,
+            // so the first value must leave a whole block above the highest existing id
+            long start = maxId + ALLOCATION_SIZE;
+            if (isMySql(database)) {
+                statement.execute("CREATE TABLE " + sequence + " (next_val BIGINT) ENGINE=InnoDB");
+                statement.execute("INSERT INTO " + sequence + " VALUES (" + start + ")");
+            } else {
+                statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    private static boolean isMySql(String database) {
+        return database.equalsIgnoreCase("MySQL") || database.equalsIgnoreCase("MariaDB");
+    }
+}
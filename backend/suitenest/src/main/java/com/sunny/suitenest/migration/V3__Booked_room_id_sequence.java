@@ -0,0 +1,17 @@
+package com.sunny.suitenest.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bookings take ids from a pooled sequence, so Hibernate can batch their inserts. The identity default
+ * on booking_id is left in place; inserts outside Hibernate must take ids from booked_room_seq.
+ */
+@Component
+public class V3__Booked_room_id_sequence extends PooledSequenceMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        createSequence(context, "booked_room_seq", "booked_room", "booking_id");
+    }
+}
@@ -0,0 +1,19 @@
+package com.sunny.suitenest.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rooms, users and roles take ids from pooled sequences as bookings do (V3), so their inserts are
+ * batched too. Inserts outside Hibernate must take ids from these sequences.
+ */
+@Component
+public class V4__Room_user_role_id_sequences extends PooledSequenceMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        createSequence(context, "room_seq", "room", "id");
+        createSequence(context, "app_user_seq", "app_user", "id");
+        createSequence(context, "role_seq", "role", "id");
+    }
+}
@@ -0,0 +1,33 @@
+package com.sunny.suitenest.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+
+/**
+ * Outbox of booking events, written in the booking's own transaction and drained by the outbox
+ * dispatcher. Delivered events are deleted; events that ran out of attempts keep their failed_at.
+ */
+@Component
+public class V6__Outbox_event extends PooledSequenceMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE outbox_event ("
+                    + " id BIGINT NOT NULL PRIMARY KEY,"
+                    + " event_type VARCHAR(64) NOT NULL,"
+                    + " aggregate_id VARCHAR(64) NOT NULL,"
+                    + " payload VARCHAR(4000) NOT NULL,"
+                    + " created_at TIMESTAMP NOT NULL,"
+                    + " next_attempt_at TIMESTAMP NOT NULL,"
+                    + " attempts INT NOT NULL,"
+                    + " last_error VARCHAR(1000),"
+                    + " failed_at TIMESTAMP NULL)");
+            // Due events are polled by next attempt time
+            statement.execute("CREATE INDEX idx_outbox_event_next_attempt ON outbox_event (next_attempt_at)");
+        }
+        createSequence(context, "outbox_event_seq", "outbox_event", "id");
+    }
+}
@@ -1,5 +1,6 @@
 package com.sunny.suitenest.model;
 
+import com.sunny.suitenest.migration.PooledSequenceMigration;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,7 +17,9 @@ import java.time.LocalDate;
 public class BookedRoom {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booked_room_seq")
+    @SequenceGenerator(name = "booked_room_seq", sequenceName = "booked_room_seq",
+            allocationSize = PooledSequenceMigration.ALLOCATION_SIZE)
     @Column(name = "booking_id")
     private Long bookingId;
 
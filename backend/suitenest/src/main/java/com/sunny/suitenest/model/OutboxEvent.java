@@ -0,0 +1,45 @@
+package com.sunny.suitenest.model;
+
+import com.sunny.suitenest.migration.PooledSequenceMigration;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq",
+            allocationSize = PooledSequenceMigration.ALLOCATION_SIZE)
+    private Long id;
+
+    private String eventType;
+    private String aggregateId;
+    private String payload;
+
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    private Instant createdAt;
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    private Instant nextAttemptAt;
+    private int attempts;
+    private String lastError;
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    private Instant failedAt;
+
+    public OutboxEvent(String eventType, String aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = createdAt;
+    }
+}
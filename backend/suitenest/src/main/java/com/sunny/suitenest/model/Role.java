@@ -1,6 +1,7 @@
 package com.sunny.suitenest.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sunny.suitenest.migration.PooledSequenceMigration;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,7 +18,9 @@ import java.util.List;
 public class Role {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
+    @SequenceGenerator(name = "role_seq", sequenceName = "role_seq",
+            allocationSize = PooledSequenceMigration.ALLOCATION_SIZE)
     private Long id;
     private String name;
 
@@ -1,13 +1,17 @@
 package com.sunny.suitenest.model;
 
+import com.sunny.suitenest.migration.PooledSequenceMigration;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
-import java.sql.Blob;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,15 +22,24 @@ import java.util.List;
 public class Room {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq",
+            allocationSize = PooledSequenceMigration.ALLOCATION_SIZE)
     private Long id;
     private String roomType;
     private BigDecimal roomPrice;
     private boolean isBooked = false;
 
-    @Lob
-    @Basic(fetch = FetchType.EAGER)
-    private Blob photo;
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    @Column(name = "photo_key", length = 64)
+    private String photoKey;
+
+    @Column(name = "last_modified", nullable = false)
+    @JdbcTypeCode(SqlTypes.TIMESTAMP)
+    private Instant lastModified;
 
     @OneToMany(mappedBy = "room", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<BookedRoom> bookings;
@@ -44,5 +57,14 @@ public class Room {
         isBooked = true;
         String bookingCode = RandomStringUtils.randomNumeric(10);
         booking.setBookingConfirmationCode(bookingCode);
+        // Bookings are part of the room as clients see it; this makes the row dirty even when
+        // isBooked was already set, so the update also bumps the version
+        lastModified = Instant.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateLastModified() {
+        lastModified = Instant.now();
     }
 }
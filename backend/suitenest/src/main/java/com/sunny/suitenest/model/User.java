@@ -1,5 +1,6 @@
 package com.sunny.suitenest.model;
 
+import com.sunny.suitenest.migration.PooledSequenceMigration;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,7 +17,9 @@ import java.util.HashSet;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq",
+            allocationSize = PooledSequenceMigration.ALLOCATION_SIZE)
     private Long id;
     private String firstName;
     private String lastName;
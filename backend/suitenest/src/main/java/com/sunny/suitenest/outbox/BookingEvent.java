@@ -0,0 +1,16 @@
+package com.sunny.suitenest.outbox;
+
+import com.sunny.suitenest.model.BookedRoom;
+
+import java.time.LocalDate;
+
+/** JSON payload of the booking outbox events. */
+public record BookingEvent(Long bookingId, String confirmationCode, Long roomId, String guestFullName,
+                           String guestEmail, LocalDate checkInDate, LocalDate checkOutDate) {
+
+    static BookingEvent of(BookedRoom booking) {
+        return new BookingEvent(booking.getBookingId(), booking.getBookingConfirmationCode(),
+                booking.getRoom().getId(), booking.getGuestFullName(), booking.getGuestEmail(),
+                booking.getCheckInDate(), booking.getCheckOutDate());
+    }
+}
@@ -0,0 +1,59 @@
+package com.sunny.suitenest.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.OutboxEvent;
+import com.sunny.suitenest.repository.OutboxEventRepository;
+import com.sunny.suitenest.transaction.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records booking events in the outbox table as part of the transaction that changes the booking, so
+ * an event exists exactly when its booking change committed. Side work (emails, analytics, channel
+ * managers) belongs in an {@link OutboxHandler}, off the request thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    public static final String BOOKING_CONFIRMED = "BookingConfirmed";
+    public static final String BOOKING_CANCELLED = "BookingCancelled";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingsConfirmed(Collection<BookedRoom> bookings) {
+        record(BOOKING_CONFIRMED, bookings);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCancelled(BookedRoom booking) {
+        record(BOOKING_CANCELLED, List.of(booking));
+    }
+
+    private void record(String eventType, Collection<BookedRoom> bookings) {
+        List<OutboxEvent> events = bookings.stream()
+                .map(booking -> new OutboxEvent(eventType, booking.getBookingConfirmationCode(), toJson(BookingEvent.of(booking))))
+                .toList();
+        outboxEventRepository.saveAll(events);
+        TransactionCallbacks.afterCommit(dispatcher::wakeUp);
+    }
+
+    private String toJson(BookingEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sunny.suitenest.outbox;
+
+import com.sunny.suitenest.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/** Logs every booking event; a stand-in for real integrations that works without any of them. */
+@Component
+@ConditionalOnProperty(name = "outbox.logging-handler.enabled", matchIfMissing = true)
+public class LoggingOutboxHandler implements OutboxHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxHandler.class);
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(BookingOutbox.BOOKING_CONFIRMED, BookingOutbox.BOOKING_CANCELLED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        logger.info("{} {}: {}", event.getEventType(), event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,216 @@
+package com.sunny.suitenest.outbox;
+
+import com.sunny.suitenest.model.OutboxEvent;
+import com.sunny.suitenest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox events to the {@link OutboxHandler}s on a background thread. Due events are claimed
+ * in batches by pushing their next attempt past a lease, in a short transaction, and handled outside
+ * it; delivered events are then deleted. A failed event is retried with exponential backoff and marked
+ * failed after the last attempt. An event whose dispatcher dies mid-batch is picked up again once its
+ * lease runs out.
+ * <p>
+ * The dispatcher polls, and is also woken as soon as a transaction that wrote events commits.
+ */
+@Component
+public class OutboxDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String EVENTS = "suitenest.outbox.events";
+    private static final String DELIVERY_DELAY = "suitenest.outbox.delivery.delay";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Map<String, List<OutboxHandler>> handlersByType = new HashMap<>();
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Object signal = new Object();
+    private boolean wakeUpPending;
+    private volatile boolean running;
+    private Thread thread;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<OutboxHandler> handlers,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.batch-size:100}") int batchSize,
+                            @Value("${outbox.poll-interval:1s}") Duration pollInterval,
+                            @Value("${outbox.lease:1m}") Duration lease,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.initial-backoff:1s}") Duration initialBackoff,
+                            @Value("${outbox.max-backoff:10m}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        handlers.forEach(handler -> handler.eventTypes().forEach(type ->
+                handlersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(handler)));
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /** Starts a dispatch round now instead of at the next poll. */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeUpPending = true;
+            signal.notifyAll();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "outbox-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        try {
+            // Events of an unfinished batch are delivered again after their lease, on the next start
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            int dispatched;
+            try {
+                dispatched = dispatchBatch();
+            } catch (DataAccessException | TransactionException e) {
+                logger.warn("Outbox dispatch failed, retrying in {}: {}", pollInterval, e.getMostSpecificCause().getMessage());
+                dispatched = 0;
+            } catch (RuntimeException e) {
+                logger.error("Outbox dispatch failed, retrying in {}", pollInterval, e);
+                dispatched = 0;
+            }
+            // A full batch means more events are probably due; carry on without waiting
+            if (dispatched < batchSize) {
+                awaitWakeUp();
+            }
+        }
+    }
+
+    private void awaitWakeUp() {
+        synchronized (signal) {
+            try {
+                if (!wakeUpPending && running) {
+                    signal.wait(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            wakeUpPending = false;
+        }
+    }
+
+    private int dispatchBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(now, Limit.of(batchSize));
+            if (!due.isEmpty()) {
+                outboxEventRepository.lease(due.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        Map<OutboxEvent, Exception> failures = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            try {
+                for (OutboxHandler handler : handlersByType.getOrDefault(event.getEventType(), List.of())) {
+                    handler.handle(event);
+                }
+                delivered.add(event.getId());
+                meterRegistry.timer(DELIVERY_DELAY, "type", event.getEventType())
+                        .record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (Exception e) {
+                failures.put(event, e);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(delivered);
+            }
+            failures.forEach(this::recordFailure);
+        });
+        meterRegistry.counter(EVENTS, "outcome", "delivered").increment(delivered.size());
+        return batch.size();
+    }
+
+    private void recordFailure(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        Instant now = Instant.now();
+        if (attempts >= maxAttempts) {
+            logger.error("Outbox event {} ({} {}) failed after {} attempts, giving up",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, error);
+            outboxEventRepository.recordFailure(event.getId(), attempts, event.getNextAttemptAt(), message, now);
+            meterRegistry.counter(EVENTS, "outcome", "failed").increment();
+        } else {
+            Duration backoff = backoff(attempts);
+            logger.warn("Outbox event {} ({} {}) failed on attempt {}, retrying in {}: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, backoff, message);
+            outboxEventRepository.recordFailure(event.getId(), attempts, now.plus(backoff), message, null);
+            meterRegistry.counter(EVENTS, "outcome", "retried").increment();
+        }
+    }
+
+    // initial-backoff doubled per attempt up to max-backoff, with up to 20% jitter so events that
+    // failed together are not retried together
+    private Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        if (millis <= 0 || millis > maxBackoff.toMillis()) {
+            millis = maxBackoff.toMillis();
+        }
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(millis / 5 + 1));
+    }
+}
@@ -0,0 +1,18 @@
+package com.sunny.suitenest.outbox;
+
+import com.sunny.suitenest.model.OutboxEvent;
+
+import java.util.Set;
+
+/**
+ * Receives outbox events after the transaction that wrote them has committed, on the dispatcher's
+ * thread. Delivery is at least once: when any handler of an event throws, the event is retried for
+ * all of its handlers, so handlers must tolerate seeing an event again.
+ */
+public interface OutboxHandler {
+
+    /** Event types this handler receives, e.g. {@link BookingOutbox#BOOKING_CONFIRMED}. */
+    Set<String> eventTypes();
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,71 @@
+package com.sunny.suitenest.pagination;
+
+import com.sunny.suitenest.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row on a page into an opaque cursor string.
+ * Clients only pass the value back; they should not parse or build it themselves.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    public static String encode(Object... keyParts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : keyParts) {
+            if (!raw.isEmpty()) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new InvalidPageRequestException("Invalid page cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid page cursor");
+        }
+    }
+
+    public static long parseLong(String keyPart) {
+        try {
+            return Long.parseLong(keyPart);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException("Invalid page cursor");
+        }
+    }
+
+    public static LocalDate parseDate(String keyPart) {
+        try {
+            return LocalDate.parse(keyPart);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid page cursor");
+        }
+    }
+
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sunny.suitenest.photo;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.List;
+
+/**
+ * Moves photos that are still stored as blobs in the room table into the {@link PhotoStore},
+ * leaving only the photo key in the row. Each room is migrated in its own transaction, so an
+ * interrupted run simply continues on the next startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class PhotoBlobMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoBlobMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PhotoStore photoStore;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> roomIds;
+        try {
+            roomIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM room WHERE photo IS NOT NULL AND photo_key IS NULL", Long.class);
+        } catch (BadSqlGrammarException e) {
+            logger.debug("Room table has no legacy photo column, nothing to migrate");
+            return;
+        }
+        if (roomIds.isEmpty()) {
+            return;
+        }
+
+        // PostgreSQL keeps blobs as large objects, which stay behind unless unlinked explicitly
+        boolean unlinkLargeObjects = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+
+        logger.info("Moving {} room photos from the database into the photo store", roomIds.size());
+        for (Long roomId : roomIds) {
+            transactionTemplate.executeWithoutResult(status -> migratePhoto(roomId, unlinkLargeObjects));
+        }
+        logger.info("Finished moving room photos into the photo store");
+    }
+
+    private void migratePhoto(Long roomId, boolean unlinkLargeObject) {
+        String photoKey = jdbcTemplate.query("SELECT photo FROM room WHERE id = ?", rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Blob photoBlob = rs.getBlob(1);
+            try (InputStream in = photoBlob.getBinaryStream()) {
+                return photoStore.put(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error moving photo for roomId: " + roomId, e);
+            }
+        }, roomId);
+        if (photoKey == null) {
+            return;
+        }
+        if (unlinkLargeObject) {
+            jdbcTemplate.queryForList("SELECT lo_unlink(photo) FROM room WHERE id = ?", roomId);
+        }
+        jdbcTemplate.update("UPDATE room SET photo_key = ?, photo = NULL WHERE id = ?", photoKey, roomId);
+    }
+}
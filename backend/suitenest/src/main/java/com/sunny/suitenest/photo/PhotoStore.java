@@ -0,0 +1,28 @@
+package com.sunny.suitenest.photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage for room photos, addressed by a key derived from the photo content so that
+ * identical uploads share one stored copy.
+ */
+public interface PhotoStore {
+
+    String put(InputStream content) throws IOException;
+
+    long size(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void transferTo(String key, OutputStream out) throws IOException;
+
+    /**
+     * Path of the stored photo when it lives on the local filesystem, which lets the
+     * servlet container send it with sendfile instead of copying it through the heap.
+     */
+    Optional<Path> localPath(String key);
+}
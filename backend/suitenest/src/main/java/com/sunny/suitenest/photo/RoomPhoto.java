@@ -0,0 +1,4 @@
+package com.sunny.suitenest.photo;
+
+public record RoomPhoto(String key, String eTag, String contentType, long contentLength) {
+}
@@ -1,16 +1,85 @@
 package com.sunny.suitenest.repository;
 
 import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.repository.projection.BookedStay;
+import com.sunny.suitenest.repository.projection.BookingExportRow;
+import com.sunny.suitenest.repository.projection.BookingStamp;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.response.BookingResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<BookedRoom, Long> {
 
+    String BOOKING_RESPONSE_SELECT = "SELECT new com.sunny.suitenest.response.BookingResponse(" +
+            " br.bookingId, br.checkInDate, br.checkOutDate, br.guestFullName, br.guestEmail," +
+            " br.numOfAdults, br.numOfChildren, br.totalNumOfGuest, br.bookingConfirmationCode," +
+            " r.id, r.roomType, r.roomPrice)" +
+            " FROM BookedRoom br JOIN br.room r";
+
     Optional<BookedRoom> findByBookingConfirmationCode(String confirmationCode);
 
     List<BookedRoom> findByRoomId(Long roomId);
 
+    List<BookedRoom> findByRoomIdIn(Collection<Long> roomIds);
+
     List<BookedRoom> findByGuestEmail(String email);
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.BookingStamp(" +
+            " COUNT(br), COALESCE(MAX(br.bookingId), 0L)) FROM BookedRoom br")
+    BookingStamp findBookingStamp();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.BookedStay(" +
+            " br.bookingId, br.room.id, br.checkInDate, br.checkOutDate) FROM BookedRoom br")
+    List<BookedStay> findAllBookedStays();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.BookingSummary(" +
+            " br.room.id, br.bookingId, br.checkInDate, br.checkOutDate, br.bookingConfirmationCode)" +
+            " FROM BookedRoom br WHERE br.room.id IN :roomIds ORDER BY br.bookingId")
+    List<BookingSummary> findSummariesByRoomIdIn(Collection<Long> roomIds);
+
+    // Streamed rows are DTOs, so nothing accumulates in the persistence context while exporting.
+    // On MySQL the fetch size only takes effect with useCursorFetch, which MySqlCursorFetch sets.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.sunny.suitenest.repository.projection.BookingExportRow(" +
+            " br.bookingId, br.checkInDate, br.checkOutDate, br.guestFullName, br.guestEmail," +
+            " br.numOfAdults, br.numOfChildren, br.totalNumOfGuest, br.bookingConfirmationCode," +
+            " r.id, r.roomType, r.roomPrice)" +
+            " FROM BookedRoom br JOIN br.room r" +
+            " WHERE (:fromDate IS NULL OR br.checkOutDate >= :fromDate)" +
+            " AND (:toDate IS NULL OR br.checkInDate <= :toDate)" +
+            " AND (:roomId IS NULL OR r.id = :roomId)" +
+            " AND (:roomType IS NULL OR r.roomType LIKE CONCAT('%', :roomType, '%'))" +
+            " ORDER BY br.bookingId")
+    Stream<BookingExportRow> streamExportRows(LocalDate fromDate, LocalDate toDate, Long roomId, String roomType);
+
+    @Query(BOOKING_RESPONSE_SELECT + " ORDER BY br.bookingId")
+    List<BookingResponse> findAllBookingResponses();
+
+    @Query(BOOKING_RESPONSE_SELECT + " WHERE br.guestEmail = :email ORDER BY br.bookingId")
+    List<BookingResponse> findBookingResponsesByGuestEmail(String email);
+
+    @Query(BOOKING_RESPONSE_SELECT + " WHERE br.bookingConfirmationCode = :confirmationCode")
+    Optional<BookingResponse> findBookingResponseByConfirmationCode(String confirmationCode);
+
+    @Query(BOOKING_RESPONSE_SELECT +
+            " WHERE (:afterCheckIn IS NULL OR (br.checkInDate, br.bookingId) > (:afterCheckIn, :afterId))" +
+            " AND (:guestEmail IS NULL OR br.guestEmail = :guestEmail)" +
+            " AND (:fromDate IS NULL OR br.checkOutDate >= :fromDate)" +
+            " AND (:toDate IS NULL OR br.checkInDate <= :toDate)" +
+            " AND (:roomType IS NULL OR r.roomType LIKE CONCAT('%', :roomType, '%'))" +
+            " ORDER BY br.checkInDate, br.bookingId")
+    List<BookingResponse> findBookingResponsesAfter(LocalDate afterCheckIn, Long afterId, String guestEmail,
+                                                    LocalDate fromDate, LocalDate toDate, String roomType,
+                                                    Limit limit);
 }
@@ -1,22 +1,69 @@
 package com.sunny.suitenest.repository;
 
 import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.repository.projection.RoomTypeCount;
+import com.sunny.suitenest.repository.projection.RoomTypeView;
+import com.sunny.suitenest.repository.projection.RoomVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.time.LocalDate;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
     @Query("SELECT DISTINCT r.roomType FROM Room r")
     List<String> findDistinctRoomTypes();
 
-    @Query(" SELECT r FROM Room r " +
-            " WHERE r.roomType LIKE %:roomType% " +
-            " AND r.id NOT IN (" +
-            "  SELECT br.room.id FROM BookedRoom br " +
-            "  WHERE ((br.checkInDate <= :checkOutDate) AND (br.checkOutDate >= :checkInDate))" +
-            ")")
-    List<Room> findAvailableRoomsByDatesAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomTypeCount(r.roomType, COUNT(r))" +
+            " FROM Room r GROUP BY r.roomType ORDER BY r.roomType")
+    List<RoomTypeCount> countRoomsByType();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomTypeView(r.id, r.roomType) FROM Room r")
+    List<RoomTypeView> findAllRoomTypeViews();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomSummary(" +
+            " r.id, r.roomType, r.roomPrice, r.isBooked, r.photoKey) FROM Room r ORDER BY r.id")
+    List<RoomSummary> findAllSummaries();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomSummary(" +
+            " r.id, r.roomType, r.roomPrice, r.isBooked, r.photoKey) FROM Room r" +
+            " WHERE r.id IN :roomIds ORDER BY r.id")
+    List<RoomSummary> findSummariesByIdIn(Collection<Long> roomIds);
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomSummary(" +
+            " r.id, r.roomType, r.roomPrice, r.isBooked, r.photoKey) FROM Room r" +
+            " WHERE r.id > :afterId AND (:roomType IS NULL OR r.roomType LIKE CONCAT('%', :roomType, '%'))" +
+            " ORDER BY r.id")
+    List<RoomSummary> findSummariesAfter(Long afterId, String roomType, Limit limit);
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.InventoryStamp(" +
+            " COUNT(r), COALESCE(SUM(r.version), 0L), MAX(r.lastModified)) FROM Room r")
+    InventoryStamp findInventoryStamp();
+
+    @Query("SELECT new com.sunny.suitenest.repository.projection.RoomVersion(r.id, r.version, r.lastModified)" +
+            " FROM Room r WHERE r.id = :roomId")
+    Optional<RoomVersion> findVersionById(Long roomId);
+
+    // Marks the room changed without loading it. The increment is done by the database, so it never
+    // conflicts, while bookings that read the old version still fail their optimistic check and retry.
+    @Modifying
+    @Query("UPDATE Room r SET r.version = r.version + 1, r.lastModified = :lastModified WHERE r.id = :roomId")
+    int touch(Long roomId, Instant lastModified);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT r FROM Room r WHERE r.id = :roomId")
+    Optional<Room> findByIdForBooking(Long roomId);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT r FROM Room r WHERE r.id IN :roomIds")
+    List<Room> findAllByIdForBooking(Collection<Long> roomIds);
 }
@@ -0,0 +1,6 @@
+package com.sunny.suitenest.repository.projection;
+
+import java.time.LocalDate;
+
+public record BookedStay(Long bookingId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+}
@@ -0,0 +1,10 @@
+package com.sunny.suitenest.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record BookingExportRow(Long bookingId, LocalDate checkInDate, LocalDate checkOutDate,
+                               String guestFullName, String guestEmail, int numOfAdults, int numOfChildren,
+                               int totalNumOfGuest, String bookingConfirmationCode,
+                               Long roomId, String roomType, BigDecimal roomPrice) {
+}
@@ -0,0 +1,5 @@
+package com.sunny.suitenest.repository.projection;
+
+/** Count and highest id of the booked_room rows, which move when bookings are inserted or deleted. */
+public record BookingStamp(Long bookings, Long maxBookingId) {
+}
@@ -0,0 +1,7 @@
+package com.sunny.suitenest.repository.projection;
+
+import java.time.LocalDate;
+
+public record BookingSummary(Long roomId, Long bookingId, LocalDate checkInDate, LocalDate checkOutDate,
+                             String bookingConfirmationCode) {
+}
@@ -0,0 +1,21 @@
+package com.sunny.suitenest.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * State of the room inventory as a whole, read from the database so every node hands out the same
+ * tag. Adding a room raises the count and the latest modification, deleting one lowers the count, and
+ * every other room change, booking or cancellation bumps a room version.
+ */
+public record InventoryStamp(Long rooms, Long versionSum, Instant lastModified) {
+
+    /** Strong ETag for one representation of the inventory, e.g. one photo mode of the listing. */
+    public String eTag(String representation) {
+        return "\"inventory-" + rooms + "-" + versionSum + "-" + lastModifiedMillis() + "-" + representation + "\"";
+    }
+
+    /** -1, meaning no Last-Modified, while there are no rooms. */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
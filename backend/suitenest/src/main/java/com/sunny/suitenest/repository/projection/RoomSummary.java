@@ -0,0 +1,12 @@
+package com.sunny.suitenest.repository.projection;
+
+import com.sunny.suitenest.model.Room;
+
+import java.math.BigDecimal;
+
+public record RoomSummary(Long id, String roomType, BigDecimal roomPrice, boolean isBooked, String photoKey) {
+
+    public static RoomSummary from(Room room) {
+        return new RoomSummary(room.getId(), room.getRoomType(), room.getRoomPrice(), room.isBooked(), room.getPhotoKey());
+    }
+}
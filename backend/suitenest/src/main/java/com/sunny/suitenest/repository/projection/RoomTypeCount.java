@@ -0,0 +1,4 @@
+package com.sunny.suitenest.repository.projection;
+
+public record RoomTypeCount(String roomType, long rooms) {
+}
@@ -0,0 +1,11 @@
+package com.sunny.suitenest.repository.projection;
+
+import java.time.Instant;
+
+public record RoomVersion(Long id, Long version, Instant lastModified) {
+
+    // The room version is bumped by every room change and every booking added or cancelled
+    public String eTag() {
+        return "\"room-" + id + "-" + version + "\"";
+    }
+}
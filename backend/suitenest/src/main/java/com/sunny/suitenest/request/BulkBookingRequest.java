@@ -0,0 +1,43 @@
+package com.sunny.suitenest.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BulkBookingRequest {
+
+    @NotBlank
+    private String guestFullName;
+
+    @NotBlank
+    private String guestEmail;
+
+    @NotEmpty
+    private List<@Valid @NotNull Item> items;
+
+    @Data
+    public static class Item {
+
+        @NotNull
+        private Long roomId;
+
+        @NotNull
+        private LocalDate checkInDate;
+
+        @NotNull
+        private LocalDate checkOutDate;
+
+        @Min(1)
+        private int numOfAdults;
+
+        @Min(0)
+        private int numOfChildren;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -28,4 +29,11 @@ public class BookingResponse {
         this.checkOutDate = checkOutDate;
         this.bookingConfirmationCode = bookingConfirmationCode;
     }
+
+    public BookingResponse(Long id, LocalDate checkInDate, LocalDate checkOutDate, String guestFullName,
+                           String guestEmail, int numOfAdults, int numOfChildren, int totalNumOfGuest,
+                           String bookingConfirmationCode, Long roomId, String roomType, BigDecimal roomPrice) {
+        this(id, checkInDate, checkOutDate, guestFullName, guestEmail, numOfAdults, numOfChildren,
+                totalNumOfGuest, bookingConfirmationCode, new RoomResponse(roomId, roomType, roomPrice));
+    }
 }
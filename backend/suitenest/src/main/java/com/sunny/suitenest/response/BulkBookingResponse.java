@@ -0,0 +1,38 @@
+package com.sunny.suitenest.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Either every item of a bulk booking was booked and has a confirmation, or nothing was booked and
+ * conflicts lists the items that could not be, by their position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingResponse {
+
+    private List<Confirmation> confirmations = List.of();
+    private List<Conflict> conflicts = List.of();
+
+    @Data
+    @AllArgsConstructor
+    public static class Confirmation {
+        private Long roomId;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+        private String confirmationCode;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Conflict {
+        private int item;
+        private Long roomId;
+        private String reason;
+    }
+}
@@ -0,0 +1,6 @@
+package com.sunny.suitenest.response;
+
+public enum PhotoMode {
+    INLINE,
+    URL
+}
@@ -0,0 +1,27 @@
+package com.sunny.suitenest.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a room import. Rows listed in errors were skipped, by their line in the manifest;
+ * every other row was imported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomImportResponse {
+
+    private int imported;
+    private List<RowError> errors = List.of();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;
+        private String message;
+    }
+}
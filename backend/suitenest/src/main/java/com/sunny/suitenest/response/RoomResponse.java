@@ -16,6 +16,7 @@ public class RoomResponse {
     private BigDecimal roomPrice;
     private boolean isBooked;
     private String photo;
+    private String photoUrl;
 
     private List<BookingResponse> bookings;
 
@@ -6,6 +6,7 @@ import com.sunny.suitenest.security.user.HotelUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -18,6 +19,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration
 @RequiredArgsConstructor
 @EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true, prePostEnabled = true)
@@ -55,8 +58,13 @@ public class WebSecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthEntryPoint))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**", "/rooms/**", "/bookings/**").permitAll()
-                        .requestMatchers("/roles/**").hasRole("ADMIN")
+                        // Path patterns, not MVC patterns: room imports are served by a second DispatcherServlet.
+                        // Imports are checked here, before the servlet spools an archive of up to
+                        // rooms.import.max-size to disk, not only by @PreAuthorize on the controller.
+                        .requestMatchers(antMatcher(HttpMethod.POST, "/rooms/import")).hasRole("ADMIN")
+                        .requestMatchers(antMatcher("/auth/**"), antMatcher("/rooms/**"), antMatcher("/bookings/**")).permitAll()
+                        .requestMatchers(antMatcher("/actuator/health"), antMatcher("/actuator/prometheus")).permitAll()
+                        .requestMatchers(antMatcher("/roles/**")).hasRole("ADMIN")
                         .anyRequest().authenticated());
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationTokenFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -1,6 +1,10 @@
 package com.sunny.suitenest.security.jwt;
 
+import com.sunny.suitenest.security.user.HotelUserDetails;
 import com.sunny.suitenest.security.user.HotelUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +21,9 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
 
@@ -25,8 +33,25 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private HotelUserDetailsService userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer validTokenTimer;
+    private Timer invalidTokenTimer;
+
+    // When set, the principal is built from the verified token's subject and roles claims alone.
+    // Role changes then only take effect when the user's token is reissued.
+    @Value("${auth.token.stateless:false}")
+    private boolean statelessAuthentication;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    @Override
+    protected void initFilterBean() {
+        validTokenTimer = meterRegistry.timer("suitenest.auth.token.verify", "result", "valid");
+        invalidTokenTimer = meterRegistry.timer("suitenest.auth.token.verify", "result", "invalid");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -34,9 +59,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String email = jwtUtils.getUserNameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            Optional<Claims> claims = Optional.empty();
+            if (jwt != null) {
+                long start = System.nanoTime();
+                claims = jwtUtils.parseClaims(jwt);
+                (claims.isPresent() ? validTokenTimer : invalidTokenTimer)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (claims.isPresent()) {
+                String email = claims.get().getSubject();
+                UserDetails userDetails = statelessAuthentication
+                        ? HotelUserDetails.buildUserDetails(email, getRoles(claims.get()))
+                        : userDetailsService.loadUserForToken(email);
                 var authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -48,6 +82,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static List<String> getRoles(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        return roles == null ? List.of() : roles.stream().map(String::valueOf).toList();
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
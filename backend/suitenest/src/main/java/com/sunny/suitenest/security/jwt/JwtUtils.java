@@ -1,11 +1,17 @@
 package com.sunny.suitenest.security.jwt;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.sunny.suitenest.security.user.HotelUserDetails;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,20 +19,43 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
 
     private static final Logger logger = (Logger) LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${auth.token.jwtSecret}")
-    private String jwtSecret;
+    private final int jwtExpirationTime;
+    private final Key signingKey;
+    private final JwtParser jwtParser;
 
-    @Value("${auth.token.expirationInMils}")
-    private int jwtExpirationTime;
+    // Verified claims keyed by a hash of the token, each entry dropped when its token expires.
+    // Null when auth.token.claimsCacheSize is 0.
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtUtils(@Value("${auth.token.jwtSecret}") String jwtSecret,
+                    @Value("${auth.token.expirationInMils}") int jwtExpirationTime,
+                    @Value("${auth.token.claimsCacheSize:10000}") int claimsCacheSize) {
+        this.jwtExpirationTime = jwtExpirationTime;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.claimsCache = claimsCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(claimsCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .<String, Claims>build()
+                : null;
+    }
 
     public String generateJwtTokenForUser(Authentication authentication){
         HotelUserDetails userPrincipal = (HotelUserDetails) authentication.getPrincipal();
@@ -36,30 +65,83 @@ public class JwtUtils {
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime()+ jwtExpirationTime))
-                .signWith(key() , SignatureAlgorithm.HS256).compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
-    private Key key () {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Verifies the token signature and expiry once and returns its claims,
+     * or an empty result when the token is not valid.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String tokenHash = claimsCache != null ? hash(token) : null;
+        Claims cached = tokenHash != null ? claimsCache.getIfPresent(tokenHash) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (tokenHash != null && claims.getExpiration() != null) {
+                claimsCache.put(tokenHash, claims);
+            }
+            return Optional.of(claims);
+        } catch (MalformedJwtException e) {
+            // Rejected tokens are counted by suitenest.auth.token.verify; expired ones are routine
+            logger.debug("Invalid JWT Token: {} ", e.getMessage() );
+        } catch (ExpiredJwtException e) {
+            logger.debug("JWT Token Expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.debug("This token is not supported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.debug("No claims found: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.debug("Invalid JWT signature: {}", e.getMessage());
+        }
+        return Optional.empty();
     }
 
     public String getUserNameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+        return parseClaims(token).map(Claims::getSubject).orElse(null);
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (claimsCache != null) {
+            CaffeineCacheMetrics.monitor(registry, claimsCache, "jwt.claims");
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenHash, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT Token: {} ", e.getMessage() );
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT Token Expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("This token is not supported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("No claims found: {}", e.getMessage());
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
-        return  false;
     }
-}
\ No newline at end of file
+}
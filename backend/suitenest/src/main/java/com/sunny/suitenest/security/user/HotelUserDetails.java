@@ -33,6 +33,15 @@ public class HotelUserDetails implements UserDetails {
         return new HotelUserDetails(user.getId(), user.getEmail(), user.getPassword(), authorities);
     }
 
+    public static HotelUserDetails buildUserDetails(String email, Collection<String> roleNames) {
+        List<GrantedAuthority> authorities = roleNames
+                .stream()
+                .map(roleName -> (GrantedAuthority) new SimpleGrantedAuthority(roleName))
+                .toList();
+
+        return new HotelUserDetails(null, email, null, authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
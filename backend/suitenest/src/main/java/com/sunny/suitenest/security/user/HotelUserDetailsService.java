@@ -1,23 +1,71 @@
 package com.sunny.suitenest.security.user;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sunny.suitenest.datasource.ReadRouting;
 import com.sunny.suitenest.model.User;
 import com.sunny.suitenest.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.sunny.suitenest.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 
-@RequiredArgsConstructor
 @Service
-public class HotelUserDetailsService implements UserDetailsService {
+public class HotelUserDetailsService implements UserDetailsService, MeterBinder {
     private final UserRepository userRepository;
 
+    // Principals for already issued tokens, so authenticated requests skip the user and roles queries.
+    // Login still goes through loadUserByUsername and always reads the database. Cached principals are
+    // loaded from the primary, so an eviction after a role change is never refilled from a stale replica.
+    private final Cache<String, UserDetails> tokenUserCache;
+
+    public HotelUserDetailsService(UserRepository userRepository,
+                                   @Value("${auth.user-cache.size:10000}") int cacheSize,
+                                   @Value("${auth.user-cache.ttl:5m}") Duration cacheTtl) {
+        this.userRepository = userRepository;
+        this.tokenUserCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found")) ;
         return HotelUserDetails.buildUserDetails(user);
     }
+
+    public UserDetails loadUserForToken(String email) throws UsernameNotFoundException {
+        return tokenUserCache.get(email, key -> ReadRouting.onPrimary(() -> loadUserByUsername(key)));
+    }
+
+    /**
+     * Drops the cached principal for a user whose roles changed or who was deleted. When called inside
+     * a transaction the entry is dropped again after commit, so a request that reloads the user
+     * mid-transaction cannot keep the old roles cached.
+     */
+    public void evictUser(String email) {
+        tokenUserCache.invalidate(email);
+        TransactionCallbacks.afterCommit(() -> tokenUserCache.invalidate(email));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tokenUserCache, "token.users");
+    }
+
+    public void evictAllUsers() {
+        tokenUserCache.invalidateAll();
+        TransactionCallbacks.afterCommit(tokenUserCache::invalidateAll);
+    }
 }
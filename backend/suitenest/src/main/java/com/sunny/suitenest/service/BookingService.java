@@ -1,17 +1,44 @@
 package com.sunny.suitenest.service;
 
 import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.request.BulkBookingRequest;
+import com.sunny.suitenest.response.BookingResponse;
+import com.sunny.suitenest.response.BulkBookingResponse;
+import com.sunny.suitenest.response.CursorPage;
+import com.sunny.suitenest.response.ExportFormat;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     public List<BookedRoom> getAllBookingsByRoomId(Long roomId);
+
+    Map<Long, List<BookingSummary>> getBookingSummariesByRoomIds(Collection<Long> roomIds);
     public List<BookedRoom> getAllBookings();
 
     public BookedRoom findByBookingConfirmationCode(String confirmationCode) ;
 
+    List<BookingResponse> getAllBookingResponses();
+
+    List<BookingResponse> getBookingResponsesByUserEmail(String email);
+
+    BookingResponse findBookingResponseByConfirmationCode(String confirmationCode);
+
+    CursorPage<BookingResponse> getBookingResponsePage(String cursor, int limit, String guestEmail,
+                                                       LocalDate fromDate, LocalDate toDate, String roomType);
+
+    long exportBookings(ExportFormat format, LocalDate fromDate, LocalDate toDate, Long roomId, String roomType,
+                        OutputStream out) throws IOException;
+
     List<BookedRoom> getBookingsByUserEmail(String email);
     public String saveBooking(Long roomId, BookedRoom bookingRequest);
 
+    BulkBookingResponse saveBookings(BulkBookingRequest bookingRequest);
+
     public void cancelBooking(Long bookingId) ;
 }
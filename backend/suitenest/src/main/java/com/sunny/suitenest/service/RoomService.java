@@ -1,14 +1,25 @@
 package com.sunny.suitenest.service;
 
+import com.sunny.suitenest.catalog.RoomTypeCatalog;
 import com.sunny.suitenest.exception.InternalServerException;
 import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.photo.RoomPhoto;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.repository.projection.RoomVersion;
+import com.sunny.suitenest.response.CursorPage;
+import com.sunny.suitenest.response.RoomImportResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RoomService {
@@ -16,11 +27,27 @@ public interface RoomService {
                     String roomType,
                     BigDecimal roomPrice) throws IOException, SQLException;
 
+    RoomImportResponse importRooms(MultipartFile manifest, MultipartFile photoArchive) throws IOException;
+
     List<String> getAllRoomTypes();
 
-    List<Room> getAllRooms();
+    RoomTypeCatalog.Snapshot getRoomTypeCatalog();
+
+    InventoryStamp getInventoryStamp();
+
+    Optional<RoomVersion> getRoomVersion(Long roomId);
+
+    RoomListing getRoomListing();
+
+    byte[] getRoomPhotoByRoomId(Long roomId);
+
+    byte[] getRoomPhotoByKey(String photoKey);
 
-    byte[] getRoomPhotoByRoomId(Long roomId) throws SQLException;
+    RoomPhoto getRoomPhoto(Long roomId);
+
+    Optional<Path> getRoomPhotoFile(RoomPhoto photo);
+
+    void writeRoomPhoto(RoomPhoto photo, OutputStream out) throws IOException;
 
     void deleteRoom(Long roomId);
 
@@ -28,5 +55,18 @@ public interface RoomService {
 
     Optional<Room> getRoomById(Long roomId);
 
-    List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+    RoomDetail getRoomDetail(Long roomId);
+
+    List<RoomSummary> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+
+    CursorPage<RoomSummary> getRoomPage(String cursor, int limit, String roomType,
+                                        LocalDate checkInDate, LocalDate checkOutDate);
+
+    /** Every room with its bookings, read in one transaction after the stamp it is tagged with. */
+    record RoomListing(InventoryStamp stamp, List<RoomSummary> rooms, Map<Long, List<BookingSummary>> bookingsByRoom) {
+    }
+
+    /** A room with its bookings, read in one transaction, and the version the room was read at. */
+    record RoomDetail(Room room, RoomVersion version, List<BookingSummary> bookings) {
+    }
 }
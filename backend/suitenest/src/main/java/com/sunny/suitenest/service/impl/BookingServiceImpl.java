@@ -1,88 +1,384 @@
 package com.sunny.suitenest.service.impl;
 
+import com.sunny.suitenest.availability.BookingOverlap;
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.concurrent.StripedLock;
+import com.sunny.suitenest.datasource.ReadRouting;
+import com.sunny.suitenest.export.BookingExportWriter;
+import com.sunny.suitenest.exception.BulkBookingConflictException;
 import com.sunny.suitenest.exception.InvalidBookingRequestException;
 import com.sunny.suitenest.exception.ResourceNotFoundException;
 import com.sunny.suitenest.model.BookedRoom;
 import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.outbox.BookingOutbox;
+import com.sunny.suitenest.pagination.PageCursor;
 import com.sunny.suitenest.repository.BookingRepository;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.BookedStay;
+import com.sunny.suitenest.repository.projection.BookingExportRow;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.request.BulkBookingRequest;
+import com.sunny.suitenest.response.BookingResponse;
+import com.sunny.suitenest.response.BulkBookingResponse;
+import com.sunny.suitenest.response.CursorPage;
+import com.sunny.suitenest.response.ExportFormat;
 import com.sunny.suitenest.service.BookingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
+
+    private static final int ROOM_LOCK_STRIPES = 256;
+    private static final int MAX_COMMIT_ATTEMPTS = 3;
+    private static final int ROOM_ID_BATCH_SIZE = 1000;
+    private static final int MAX_BULK_BOOKING_ITEMS = 100;
+
+    // Unique index from V2; codes are drawn at random, so a commit can hit a taken one
+    private static final String CONFIRMATION_CODE_INDEX = "ux_booked_room_confirmation_code";
+
+    private static final String BOOKING_TIMER = "suitenest.booking.save";
+    private static final String BOOKING_CONFLICTS = "suitenest.booking.conflicts";
+    private static final String BOOKING_RETRIES = "suitenest.booking.retries";
+    private static final String BULK_BOOKING_TIMER = "suitenest.booking.bulk.save";
+
     private final BookingRepository bookingRepository;
-    private final RoomServiceImpl roomService;
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final BookingExportWriter exportWriter;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final StripedLock roomLocks = new StripedLock(ROOM_LOCK_STRIPES);
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookedRoom> getAllBookings() {
         return bookingRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookedRoom> getBookingsByUserEmail(String email) {
         return bookingRepository.findByGuestEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookedRoom> getAllBookingsByRoomId(Long roomId) {
         return bookingRepository.findByRoomId(roomId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<BookingSummary>> getBookingSummariesByRoomIds(Collection<Long> roomIds) {
+        List<Long> ids = List.copyOf(roomIds);
+        Map<Long, List<BookingSummary>> bookingsByRoom = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ROOM_ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ROOM_ID_BATCH_SIZE, ids.size()));
+            bookingRepository.findSummariesByRoomIdIn(batch).forEach(booking ->
+                    bookingsByRoom.computeIfAbsent(booking.roomId(), id -> new ArrayList<>()).add(booking));
+        }
+        return bookingsByRoom;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookedRoom findByBookingConfirmationCode(String confirmationCode) {
         return bookingRepository.findByBookingConfirmationCode(confirmationCode)
                 .orElseThrow(() -> new ResourceNotFoundException("No booking found with booking code: "+confirmationCode));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getAllBookingResponses() {
+        return bookingRepository.findAllBookingResponses();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingResponse> getBookingResponsePage(String cursor, int limit, String guestEmail,
+                                                              LocalDate fromDate, LocalDate toDate, String roomType) {
+        PageCursor.checkLimit(limit);
+        LocalDate afterCheckIn = null;
+        long afterId = 0L;
+        if (cursor != null) {
+            String[] key = PageCursor.decode(cursor, 2);
+            afterCheckIn = PageCursor.parseDate(key[0]);
+            afterId = PageCursor.parseLong(key[1]);
+        }
+        List<BookingResponse> bookings = bookingRepository.findBookingResponsesAfter(
+                afterCheckIn, afterId,
+                StringUtils.hasText(guestEmail) ? guestEmail : null,
+                fromDate, toDate,
+                StringUtils.hasText(roomType) ? roomType : null,
+                Limit.of(limit + 1));
+        return CursorPage.of(bookings, limit,
+                booking -> PageCursor.encode(booking.getCheckInDate(), booking.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBookings(ExportFormat format, LocalDate fromDate, LocalDate toDate, Long roomId, String roomType,
+                               OutputStream out) throws IOException {
+        try (Stream<BookingExportRow> rows = bookingRepository.streamExportRows(
+                fromDate, toDate, roomId, StringUtils.hasText(roomType) ? roomType : null)) {
+            return exportWriter.write(format, rows, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingResponsesByUserEmail(String email) {
+        return bookingRepository.findBookingResponsesByGuestEmail(email);
+    }
+
+    // Guests look bookings up by the code they were just given, possibly from another device and before a
+    // replica has the booking, so a code the replica does not know is looked up again on the primary.
+    // Each lookup is a read-only repository transaction of its own; one transaction would stay on the
+    // replica it first read from.
+    @Override
+    public BookingResponse findBookingResponseByConfirmationCode(String confirmationCode) {
+        return bookingRepository.findBookingResponseByConfirmationCode(confirmationCode)
+                .or(() -> ReadRouting.onPrimary(() ->
+                        bookingRepository.findBookingResponseByConfirmationCode(confirmationCode)))
+                .orElseThrow(() -> new ResourceNotFoundException("No booking found with booking code: "+confirmationCode));
+    }
+
     @Override
     public String saveBooking(Long roomId, BookedRoom bookingRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String confirmationCode = lockAndCommitBooking(roomId, bookingRequest);
+            outcome = "success";
+            return confirmationCode;
+        } catch (InvalidBookingRequestException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(BOOKING_TIMER, "outcome", outcome));
+        }
+    }
 
+    private String lockAndCommitBooking(Long roomId, BookedRoom bookingRequest) {
         if (bookingRequest.getCheckOutDate().isBefore(bookingRequest.getCheckInDate())){
             throw new InvalidBookingRequestException("Check-in date must come before check-out date");
         }
 
-        Room room = roomService.getRoomById(roomId).get();
+        // The stripe lock serializes bookings for the same room on this node, while the
+        // forced version bump on Room makes concurrent commits from other nodes fail and retry.
+        Lock roomLock = roomLocks.get(roomId);
+        roomLock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> commitBooking(roomId, bookingRequest));
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    rethrowUnlessRetryable(e);
+                    if (attempt >= MAX_COMMIT_ATTEMPTS) {
+                        meterRegistry.counter(BOOKING_CONFLICTS, "reason", "concurrent_update").increment();
+                        throw new InvalidBookingRequestException(
+                                "Sorry! This room is being booked by someone else, please try again.");
+                    }
+                    meterRegistry.counter(BOOKING_RETRIES).increment();
+                    logger.debug("Booking for roomId {} lost a concurrent update or drew a taken confirmation code, "
+                            + "retrying (attempt {})", roomId, attempt);
+                }
+            }
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    private String commitBooking(Long roomId, BookedRoom bookingRequest) {
+        bookingRequest.setBookingId(null);
+        Room room = roomRepository.findByIdForBooking(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sorry! Room not found."));
         List<BookedRoom> existingBookings = room.getBookings();
 
-        boolean roomIsAvailable = roomIsAvailable(bookingRequest, existingBookings);
+        boolean roomIsAvailable = BookingOverlap.roomIsAvailable(bookingRequest, existingBookings);
         if (roomIsAvailable) {
             room.addBooking(bookingRequest);
             bookingRepository.save(bookingRequest);
+            bookingOutbox.bookingsConfirmed(List.of(bookingRequest));
+            availabilityIndex.bookingAdded(new BookedStay(bookingRequest.getBookingId(), roomId,
+                    bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate()));
         } else {
+            meterRegistry.counter(BOOKING_CONFLICTS, "reason", "unavailable").increment();
             throw new InvalidBookingRequestException("Sorry! This room is not available for the selected dates.");
         }
         return bookingRequest.getBookingConfirmationCode();
     }
 
-
     @Override
-    public void cancelBooking(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+    public BulkBookingResponse saveBookings(BulkBookingRequest bookingRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            BulkBookingResponse response = lockAndCommitBookings(bookingRequest);
+            outcome = "success";
+            return response;
+        } catch (InvalidBookingRequestException | BulkBookingConflictException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(BULK_BOOKING_TIMER, "outcome", outcome));
+        }
     }
 
-    private boolean roomIsAvailable(BookedRoom bookingRequest, List<BookedRoom> existingBookings) {
-        return existingBookings.stream().noneMatch(existingBooking ->
-                bookingRequest.getCheckInDate().equals(existingBooking.getCheckInDate())
-                        || bookingRequest.getCheckOutDate().isBefore(existingBooking.getCheckOutDate())
-                        || (bookingRequest.getCheckInDate().isAfter(existingBooking.getCheckInDate())
-                        && bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckOutDate()))
-                        || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+    private BulkBookingResponse lockAndCommitBookings(BulkBookingRequest bookingRequest) {
+        if (bookingRequest.getItems().size() > MAX_BULK_BOOKING_ITEMS) {
+            throw new InvalidBookingRequestException(
+                    "A bulk booking can hold at most " + MAX_BULK_BOOKING_ITEMS + " rooms");
+        }
+        Set<Long> roomIds = bookingRequest.getItems().stream()
+                .map(BulkBookingRequest.Item::getRoomId)
+                .collect(Collectors.toSet());
 
-                        && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckOutDate()))
-                        || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+        // Same locking and retry as a single booking, over every room in the request
+        List<Lock> locks = roomLocks.getAll(roomIds);
+        locks.forEach(Lock::lock);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> commitBookings(bookingRequest, roomIds));
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    rethrowUnlessRetryable(e);
+                    if (attempt >= MAX_COMMIT_ATTEMPTS) {
+                        meterRegistry.counter(BOOKING_CONFLICTS, "reason", "concurrent_update").increment();
+                        throw new InvalidBookingRequestException(
+                                "Sorry! Some of these rooms are being booked by someone else, please try again.");
+                    }
+                    meterRegistry.counter(BOOKING_RETRIES).increment();
+                    logger.debug("Bulk booking for {} rooms lost a concurrent update or drew a taken confirmation code, "
+                            + "retrying (attempt {})", roomIds.size(), attempt);
+                }
+            }
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
 
-                        && bookingRequest.getCheckOutDate().isAfter(existingBooking.getCheckOutDate()))
+    // A retry runs the whole commit again, and Room.addBooking draws new confirmation codes for it.
+    // Any other integrity violation is not going to go away by retrying.
+    private static void rethrowUnlessRetryable(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException violation && !isConfirmationCodeCollision(violation)) {
+            throw violation;
+        }
+    }
+
+    // Matched on the index name in the driver's message, which H2, PostgreSQL and MySQL all include
+    private static boolean isConfirmationCodeCollision(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(CONFIRMATION_CODE_INDEX);
+    }
 
-                        || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
-                        && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckInDate()))
+    private BulkBookingResponse commitBookings(BulkBookingRequest bookingRequest, Set<Long> roomIds) {
+        Map<Long, Room> rooms = roomRepository.findAllByIdForBooking(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        Map<Long, List<BookedRoom>> existingByRoom = bookingRepository.findByRoomIdIn(rooms.keySet()).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRoom().getId()));
+        Map<Long, List<BookedRoom>> requestedByRoom = new HashMap<>();
+        List<BookedRoom> bookings = new ArrayList<>();
+        List<BulkBookingResponse.Conflict> conflicts = new ArrayList<>();
 
-                        || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
-                        && bookingRequest.getCheckOutDate().equals(bookingRequest.getCheckInDate()))
-        );
+        List<BulkBookingRequest.Item> items = bookingRequest.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            BulkBookingRequest.Item item = items.get(i);
+            BookedRoom booking = toBooking(bookingRequest, item);
+            Room room = rooms.get(item.getRoomId());
+            List<BookedRoom> requested = requestedByRoom.computeIfAbsent(item.getRoomId(), id -> new ArrayList<>());
+
+            String conflict = null;
+            if (room == null) {
+                conflict = "Room not found";
+            } else if (booking.getCheckOutDate().isBefore(booking.getCheckInDate())) {
+                conflict = "Check-in date must come before check-out date";
+            } else if (!BookingOverlap.roomIsAvailable(booking, existingByRoom.getOrDefault(room.getId(), List.of()))) {
+                conflict = "Room is not available for the selected dates";
+            } else if (BookingOverlap.overlapsAny(booking, requested)) {
+                conflict = "Overlaps another booking of this room in the same request";
+            }
+            if (conflict != null) {
+                conflicts.add(new BulkBookingResponse.Conflict(i, item.getRoomId(), conflict));
+            }
+            requested.add(booking);
+            bookings.add(booking);
+        }
+        if (!conflicts.isEmpty()) {
+            meterRegistry.counter(BOOKING_CONFLICTS, "reason", "bulk_unavailable").increment(conflicts.size());
+            throw new BulkBookingConflictException(conflicts);
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            rooms.get(items.get(i).getRoomId()).addBooking(bookings.get(i));
+        }
+        // Booking ids come from a pooled sequence, so these inserts are sent as JDBC batches
+        bookingRepository.saveAll(bookings);
+        bookingOutbox.bookingsConfirmed(bookings);
+
+        List<BulkBookingResponse.Confirmation> confirmations = new ArrayList<>(bookings.size());
+        for (BookedRoom booking : bookings) {
+            Long roomId = booking.getRoom().getId();
+            availabilityIndex.bookingAdded(new BookedStay(booking.getBookingId(), roomId,
+                    booking.getCheckInDate(), booking.getCheckOutDate()));
+            confirmations.add(new BulkBookingResponse.Confirmation(roomId, booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getBookingConfirmationCode()));
+        }
+        return new BulkBookingResponse(confirmations, List.of());
+    }
+
+    private static BookedRoom toBooking(BulkBookingRequest bookingRequest, BulkBookingRequest.Item item) {
+        BookedRoom booking = new BookedRoom();
+        booking.setGuestFullName(bookingRequest.getGuestFullName());
+        booking.setGuestEmail(bookingRequest.getGuestEmail());
+        booking.setCheckInDate(item.getCheckInDate());
+        booking.setCheckOutDate(item.getCheckOutDate());
+        booking.setNumOfAdults(item.getNumOfAdults());
+        booking.setNumOfChildren(item.getNumOfChildren());
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public void cancelBooking(Long bookingId) {
+        bookingRepository.findById(bookingId).ifPresent(booking -> {
+            bookingRepository.delete(booking);
+            roomRepository.touch(booking.getRoom().getId(), Instant.now());
+            bookingOutbox.bookingCancelled(booking);
+        });
+        availabilityIndex.bookingRemoved(bookingId);
     }
-}
\ No newline at end of file
+}
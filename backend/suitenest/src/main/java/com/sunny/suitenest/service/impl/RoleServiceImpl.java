@@ -6,6 +6,7 @@ import com.sunny.suitenest.model.Role;
 import com.sunny.suitenest.model.User;
 import com.sunny.suitenest.repository.RoleRepository;
 import com.sunny.suitenest.repository.UserRepository;
+import com.sunny.suitenest.security.user.HotelUserDetailsService;
 import com.sunny.suitenest.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +21,7 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
     private  final UserRepository userRepository;
+    private final HotelUserDetailsService userDetailsService;
 
     @Override
     public List<Role> getAllRoles() {
@@ -56,6 +58,7 @@ public class RoleServiceImpl implements RoleService {
         if (role.isPresent() && role.get().getUsers().contains(user.get())) {
             role.get().removeUserFromRole(user.get());
             roleRepository.save(role.get());
+            userDetailsService.evictUser(user.get().getEmail());
             return user.get();
         }
         throw new UsernameNotFoundException("User not found");
@@ -74,6 +77,7 @@ public class RoleServiceImpl implements RoleService {
         if (role.isPresent()) {
             role.get().assignRoleToUser(user.get());
             roleRepository.save(role.get());
+            userDetailsService.evictUser(user.get().getEmail());
         }
         return user.get();
     }
@@ -90,6 +94,8 @@ public class RoleServiceImpl implements RoleService {
             }
          */
 
-        return roleRepository.save(role.get());
+        Role savedRole = roleRepository.save(role.get());
+        userDetailsService.evictAllUsers();
+        return savedRole;
     }
 }
@@ -1,21 +1,45 @@
 package com.sunny.suitenest.service.impl;
 
+import com.sunny.suitenest.availability.AvailabilitySearchCache;
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.catalog.RoomTypeCatalog;
+import com.sunny.suitenest.datasource.ReadRouting;
 import com.sunny.suitenest.exception.InternalServerException;
+import com.sunny.suitenest.exception.InvalidPageRequestException;
+import com.sunny.suitenest.exception.PhotoRetreivalException;
 import com.sunny.suitenest.exception.ResourceNotFoundException;
+import com.sunny.suitenest.inventory.RoomInventoryImporter;
 import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.pagination.PageCursor;
+import com.sunny.suitenest.photo.ImageTypes;
+import com.sunny.suitenest.photo.PhotoStore;
+import com.sunny.suitenest.photo.RoomPhoto;
 import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.repository.projection.RoomVersion;
+import com.sunny.suitenest.response.CursorPage;
+import com.sunny.suitenest.response.RoomImportResponse;
+import com.sunny.suitenest.service.BookingService;
 import com.sunny.suitenest.service.RoomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.sql.rowset.serial.SerialBlob;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.sql.Blob;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
@@ -28,7 +52,19 @@ public class RoomServiceImpl implements RoomService {
 
     private static final Logger logger = LoggerFactory.getLogger(RoomServiceImpl.class);
 
+    private static final String SEARCH_TIMER = "suitenest.rooms.search";
+    private static final String SEARCH_RESULTS = "suitenest.rooms.search.results";
+    public static final String PHOTO_READ_TIMER = "suitenest.photo.read";
+    public static final String PHOTO_BYTES_SERVED = "suitenest.photo.served.bytes";
+
     private final RoomRepository roomRepository;
+    private final BookingService bookingService;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final AvailabilitySearchCache searchCache;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final PhotoStore photoStore;
+    private final RoomInventoryImporter roomInventoryImporter;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public Room addNewRoom(MultipartFile file, String roomType, BigDecimal roomPrice) throws IOException, SQLException {
@@ -36,58 +72,122 @@ public class RoomServiceImpl implements RoomService {
         room.setRoomType(roomType);
         room.setRoomPrice(roomPrice);
         if (file != null && !file.isEmpty()) {
-            try {
-                byte[] photoBytes = file.getBytes();
-                Blob photoBlob = new SerialBlob(photoBytes);
-                room.setPhoto(photoBlob);
-            } catch (SQLException e) {
-                throw new SQLException("Error creating Blob from photo bytes: ", e);
+            try (InputStream photo = file.getInputStream()) {
+                room.setPhotoKey(photoStore.put(photo));
             }
         } else {
             throw new IOException("Photo file is empty or not provided.");
         }
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        availabilityIndex.roomSaved(savedRoom.getId(), savedRoom.getRoomType());
+        roomTypeCatalog.invalidate();
+        return savedRoom;
+    }
+
+    // Not one transaction: the importer commits each batch of rooms separately
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RoomImportResponse importRooms(MultipartFile manifest, MultipartFile photoArchive) throws IOException {
+        try (InputStream manifestIn = manifest.getInputStream();
+             InputStream photosIn = photoArchive.getInputStream()) {
+            return roomInventoryImporter.importRooms(manifestIn, photosIn);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<String> getAllRoomTypes() {
-        return roomRepository.findDistinctRoomTypes();
+        return roomTypeCatalog.get().roomTypes();
     }
 
     @Override
-    public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+    @Transactional(readOnly = true)
+    public RoomTypeCatalog.Snapshot getRoomTypeCatalog() {
+        return roomTypeCatalog.get();
     }
 
+    // One aggregate over the room table, so a 304 costs no room, booking or photo reads
     @Override
-    public byte[] getRoomPhotoByRoomId(Long roomId) throws SQLException {
+    @Transactional(readOnly = true)
+    public InventoryStamp getInventoryStamp() {
+        return roomRepository.findInventoryStamp();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RoomVersion> getRoomVersion(Long roomId) {
+        return roomRepository.findVersionById(roomId);
+    }
+
+    // The stamp is read first and on the same connection as the rooms and bookings, so even on a
+    // lagging replica the data is never older than the tag it is sent under
+    @Override
+    @Transactional(readOnly = true)
+    public RoomListing getRoomListing() {
+        InventoryStamp stamp = roomRepository.findInventoryStamp();
+        List<RoomSummary> rooms = roomRepository.findAllSummaries();
+        return new RoomListing(stamp, rooms,
+                bookingService.getBookingSummariesByRoomIds(rooms.stream().map(RoomSummary::id).toList()));
+    }
+
+    @Override
+    public byte[] getRoomPhotoByRoomId(Long roomId) {
         Optional<Room> room = roomRepository.findById(roomId);
         if (room.isEmpty()) {
             throw new ResourceNotFoundException("Sorry! Room not found.");
         }
-        Blob photoBlob = room.get().getPhoto();
-        if (photoBlob == null) {
+        String photoKey = room.get().getPhotoKey();
+        if (photoKey == null) {
             logger.warn("No photo found for roomId: {}", roomId);
             return null;
         }
+        return getRoomPhotoByKey(photoKey);
+    }
 
-        try {
-            long length = photoBlob.length();
-            logger.debug("Blob length for roomId {}: {}", roomId, length);
+    @Override
+    public byte[] getRoomPhotoByKey(String photoKey) {
+        if (photoKey == null) {
+            return null;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (InputStream photo = photoStore.open(photoKey)) {
+            byte[] photoBytes = photo.readAllBytes();
+            sample.stop(meterRegistry.timer(PHOTO_READ_TIMER, "mode", "inline"));
+            meterRegistry.summary(PHOTO_BYTES_SERVED, "mode", "inline").record(photoBytes.length);
+            return photoBytes;
+        } catch (IOException e) {
+            logger.error("Error reading photo {}", photoKey, e);
+            throw new PhotoRetreivalException("Error retrieving photo: " + photoKey);
+        }
+    }
 
-            if (length > Integer.MAX_VALUE) {
-                logger.error("Blob size is too large for roomId: {}", roomId);
-                throw new SQLException("Blob size exceeds maximum allowed length");
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public RoomPhoto getRoomPhoto(Long roomId) {
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sorry! Room not found."));
+        String photoKey = room.getPhotoKey();
+        if (photoKey == null) {
+            throw new ResourceNotFoundException("No photo found for room: " + roomId);
+        }
 
-            byte[] photoBytes = photoBlob.getBytes(1, (int) length);
-            logger.debug("Successfully fetched photo for roomId: {}", roomId);
-            return photoBytes;
-        } catch (SQLException e) {
-            logger.error("Error retrieving bytes from Blob for roomId: {}", roomId, e);
-            throw e; // Re-throw to handle at higher level if needed
+        try (InputStream photo = photoStore.open(photoKey)) {
+            String contentType = ImageTypes.detect(photo.readNBytes(ImageTypes.HEADER_LENGTH));
+            return new RoomPhoto(photoKey, "\"" + photoKey + "\"", contentType, photoStore.size(photoKey));
+        } catch (IOException e) {
+            logger.error("Error reading photo {} for roomId: {}", photoKey, roomId, e);
+            throw new PhotoRetreivalException("Error retrieving photo for room: " + roomId);
         }
-        //return photoBlob.getBytes(1, (int) photoBlob.length());
+    }
+
+    @Override
+    public Optional<Path> getRoomPhotoFile(RoomPhoto photo) {
+        return photoStore.localPath(photo.key());
+    }
+
+    @Override
+    public void writeRoomPhoto(RoomPhoto photo, OutputStream out) throws IOException {
+        photoStore.transferTo(photo.key(), out);
     }
 
     @Override
@@ -95,6 +195,8 @@ public class RoomServiceImpl implements RoomService {
         Optional<Room> room = roomRepository.findById(roomId);
         if (room.isPresent()) {
             roomRepository.deleteById(roomId);
+            availabilityIndex.roomDeleted(roomId);
+            roomTypeCatalog.invalidate();
         }
     }
 
@@ -105,21 +207,68 @@ public class RoomServiceImpl implements RoomService {
         if (roomPrice != null) room.setRoomPrice(roomPrice);
         if (photoBytes != null && photoBytes.length > 0) {
             try {
-                room.setPhoto(new SerialBlob(photoBytes));
-            } catch (SQLException e) {
+                room.setPhotoKey(photoStore.put(new ByteArrayInputStream(photoBytes)));
+            } catch (IOException e) {
                 throw new InternalServerException("Error updating room");
             }
         }
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        availabilityIndex.roomSaved(savedRoom.getId(), savedRoom.getRoomType());
+        roomTypeCatalog.invalidate();
+        return savedRoom;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Room> getRoomById(Long roomId) {
         return Optional.of(roomRepository.findById(roomId).get());
     }
 
     @Override
-    public List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
-        return roomRepository.findAvailableRoomsByDatesAndType(checkInDate, checkOutDate, roomType);
+    @Transactional(readOnly = true)
+    public RoomDetail getRoomDetail(Long roomId) {
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found!"));
+        return new RoomDetail(room, new RoomVersion(room.getId(), room.getVersion(), room.getLastModified()),
+                bookingService.getBookingSummariesByRoomIds(List.of(roomId)).getOrDefault(roomId, List.of()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomSummary> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<RoomSummary> rooms = searchCache.get(checkInDate, checkOutDate, roomType, () -> {
+            List<Long> roomIds = availabilityIndex.findAvailableRoomIds(checkInDate, checkOutDate, roomType);
+            // Cached until the next change, so read what the index already reflects: the primary
+            return roomIds.isEmpty() ? List.of() : ReadRouting.onPrimary(() -> roomRepository.findSummariesByIdIn(roomIds));
+        });
+        sample.stop(meterRegistry.timer(SEARCH_TIMER));
+        meterRegistry.summary(SEARCH_RESULTS).record(rooms.size());
+        return rooms;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RoomSummary> getRoomPage(String cursor, int limit, String roomType,
+                                               LocalDate checkInDate, LocalDate checkOutDate) {
+        PageCursor.checkLimit(limit);
+        long afterId = cursor != null ? PageCursor.parseLong(PageCursor.decode(cursor, 1)[0]) : 0L;
+        String type = StringUtils.hasText(roomType) ? roomType : null;
+
+        List<RoomSummary> rooms;
+        if (checkInDate != null || checkOutDate != null) {
+            if (checkInDate == null || checkOutDate == null || checkOutDate.isBefore(checkInDate)) {
+                throw new InvalidPageRequestException("Both check-in and check-out dates are required, in order");
+            }
+            List<Long> roomIds = availabilityIndex.findAvailableRoomIds(checkInDate, checkOutDate, type)
+                    .stream()
+                    .filter(roomId -> roomId > afterId)
+                    .limit(limit + 1L)
+                    .toList();
+            rooms = roomIds.isEmpty() ? List.of() : roomRepository.findSummariesByIdIn(roomIds);
+        } else {
+            rooms = roomRepository.findSummariesAfter(afterId, type, Limit.of(limit + 1));
+        }
+        return CursorPage.of(rooms, limit, room -> PageCursor.encode(room.id()));
     }
 }
@@ -5,6 +5,7 @@ import com.sunny.suitenest.model.Role;
 import com.sunny.suitenest.model.User;
 import com.sunny.suitenest.repository.RoleRepository;
 import com.sunny.suitenest.repository.UserRepository;
+import com.sunny.suitenest.security.user.HotelUserDetailsService;
 import com.sunny.suitenest.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final HotelUserDetailsService userDetailsService;
 
     @Override
     public User registerUser(User user) {
@@ -29,7 +31,6 @@ public class UserServiceImpl implements UserService {
             throw new UserAlreadyExistException(user.getEmail() + " already exists!");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        System.out.println(user.getPassword());
         Role userRole = roleRepository.findByName("ROLE_USER").get();
         user.setRoles(Collections.singletonList(userRole));
         return userRepository.save(user);
@@ -46,6 +47,7 @@ public class UserServiceImpl implements UserService {
         User user = getUserByEmail(email);
         if (user != null) {
             userRepository.deleteByEmail(email);
+            userDetailsService.evictUser(email);
         }
     }
 
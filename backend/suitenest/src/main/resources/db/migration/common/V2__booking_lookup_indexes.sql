@@ -0,0 +1,12 @@
+-- Find booking by confirmation code; codes must be unique
+CREATE UNIQUE INDEX ux_booked_room_confirmation_code ON booked_room (confirmation_code);
+
+-- Bookings of a guest
+CREATE INDEX idx_booked_room_guest_email ON booked_room (guest_email);
+
+-- Bookings of a room and date overlap checks. The leading room_id also serves lookups and
+-- foreign key checks by room alone, so there is no separate room_id index.
+CREATE INDEX idx_booked_room_room_dates ON booked_room (room_id, check_in, check_out);
+
+-- Keyset paging of bookings ordered by check-in
+CREATE INDEX idx_booked_room_check_in ON booked_room (check_in, booking_id);
@@ -0,0 +1,3 @@
+-- When the room or any of its bookings last changed, sent as Last-Modified on room responses.
+-- Existing rows, and rows inserted outside the application, take the current time.
+ALTER TABLE room ADD COLUMN last_modified TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
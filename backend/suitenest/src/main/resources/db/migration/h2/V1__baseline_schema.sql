@@ -0,0 +1,45 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Databases that already have these
+-- tables are baselined at this version and start from V2.
+
+CREATE TABLE room (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_type  VARCHAR(255),
+    room_price NUMERIC(38, 2),
+    is_booked  BOOLEAN NOT NULL,
+    version    BIGINT DEFAULT 0,
+    photo_key  VARCHAR(64)
+);
+
+CREATE TABLE booked_room (
+    booking_id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    check_in          DATE,
+    check_out         DATE,
+    guest_full_name   VARCHAR(255),
+    guest_email       VARCHAR(255),
+    adults            INTEGER NOT NULL,
+    children          INTEGER NOT NULL,
+    total_guest       INTEGER NOT NULL,
+    confirmation_code VARCHAR(255),
+    room_id           BIGINT,
+    CONSTRAINT fk_booked_room_room FOREIGN KEY (room_id) REFERENCES room (id)
+);
+
+CREATE TABLE app_user (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    email      VARCHAR(255),
+    password   VARCHAR(255)
+);
+
+CREATE TABLE role (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES app_user (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES role (id)
+);
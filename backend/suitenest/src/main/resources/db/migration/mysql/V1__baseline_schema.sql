@@ -0,0 +1,45 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update) on MySQL. Databases that already have
+-- these tables are baselined at this version and start from V2.
+
+CREATE TABLE room (
+    id         BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    room_type  VARCHAR(255),
+    room_price DECIMAL(38, 2),
+    is_booked  BIT NOT NULL,
+    version    BIGINT DEFAULT 0,
+    photo_key  VARCHAR(64)
+) ENGINE=InnoDB;
+
+CREATE TABLE booked_room (
+    booking_id        BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    check_in          DATE,
+    check_out         DATE,
+    guest_full_name   VARCHAR(255),
+    guest_email       VARCHAR(255),
+    adults            INTEGER NOT NULL,
+    children          INTEGER NOT NULL,
+    total_guest       INTEGER NOT NULL,
+    confirmation_code VARCHAR(255),
+    room_id           BIGINT,
+    CONSTRAINT fk_booked_room_room FOREIGN KEY (room_id) REFERENCES room (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE app_user (
+    id         BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    email      VARCHAR(255),
+    password   VARCHAR(255)
+) ENGINE=InnoDB;
+
+CREATE TABLE role (
+    id   BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255)
+) ENGINE=InnoDB;
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES app_user (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES role (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,51 @@
+package com.sunny.suitenest.availability;
+
+import com.sunny.suitenest.model.BookedRoom;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingOverlapTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+
+    @Test
+    void backToBackStaysDoNotOverlapInEitherOrder() {
+        BookedRoom first = stay(0, 3);
+        BookedRoom second = stay(3, 5);
+
+        assertThat(BookingOverlap.overlapsAny(first, List.of(second))).isFalse();
+        assertThat(BookingOverlap.overlapsAny(second, List.of(first))).isFalse();
+    }
+
+    @Test
+    void separateStaysDoNotOverlapInEitherOrder() {
+        BookedRoom early = stay(0, 2);
+        BookedRoom late = stay(5, 8);
+
+        assertThat(BookingOverlap.overlapsAny(early, List.of(late))).isFalse();
+        assertThat(BookingOverlap.overlapsAny(late, List.of(early))).isFalse();
+    }
+
+    @Test
+    void sharedNightsOverlapInEitherOrder() {
+        BookedRoom outer = stay(0, 6);
+        BookedRoom inner = stay(2, 4);
+        BookedRoom shifted = stay(5, 9);
+
+        assertThat(BookingOverlap.overlapsAny(outer, List.of(inner))).isTrue();
+        assertThat(BookingOverlap.overlapsAny(inner, List.of(outer))).isTrue();
+        assertThat(BookingOverlap.overlapsAny(outer, List.of(shifted))).isTrue();
+        assertThat(BookingOverlap.overlapsAny(shifted, List.of(outer))).isTrue();
+    }
+
+    private static BookedRoom stay(int checkIn, int checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(DAY.plusDays(checkIn));
+        booking.setCheckOutDate(DAY.plusDays(checkOut));
+        return booking;
+    }
+}
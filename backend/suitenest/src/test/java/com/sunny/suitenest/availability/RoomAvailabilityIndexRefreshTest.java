@@ -0,0 +1,76 @@
+package com.sunny.suitenest.availability;
+
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.BookingRepository;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.service.impl.RoomServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bookings committed by another node, or written to the database directly, skip this node's commit
+ * hooks; the background refresh has to bring them into the index and the search cache.
+ */
+@SpringBootTest(properties = "rooms.availability.refresh-interval=200ms")
+@ActiveProfiles("test")
+class RoomAvailabilityIndexRefreshTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(60);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    @Autowired
+    private RoomServiceImpl roomService;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void bookingWrittenByAnotherNodeIsPickedUp() throws Exception {
+        String roomType = "Refresh";
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(100));
+        Long roomId = roomRepository.save(room).getId();
+        awaitSearch(roomType, rooms -> rooms.contains(roomId));
+
+        // Saved without going through this node's booking service, as another node would
+        BookedRoom booking = new BookedRoom();
+        booking.setGuestFullName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setCheckInDate(CHECK_IN);
+        booking.setCheckOutDate(CHECK_OUT);
+        booking.setNumOfAdults(1);
+        booking.setBookingConfirmationCode("9999999999");
+        booking.setRoom(roomRepository.findById(roomId).orElseThrow());
+        bookingRepository.save(booking);
+
+        awaitSearch(roomType, rooms -> !rooms.contains(roomId));
+    }
+
+    private void awaitSearch(String roomType, Predicate<List<Long>> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<Long> roomIds;
+        do {
+            roomIds = roomService.getAvailableRooms(CHECK_IN, CHECK_OUT, roomType).stream()
+                    .map(RoomSummary::id)
+                    .toList();
+            if (condition.test(roomIds)) {
+                return;
+            }
+            Thread.sleep(100);
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("Search for " + roomType + " still returns " + roomIds);
+    }
+}
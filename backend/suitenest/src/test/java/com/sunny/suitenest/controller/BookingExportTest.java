@@ -0,0 +1,110 @@
+package com.sunny.suitenest.controller;
+
+import com.sunny.suitenest.export.BookingExportExecutor;
+import com.sunny.suitenest.security.jwt.JwtUtils;
+import com.sunny.suitenest.security.user.HotelUserDetails;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Booking exports stream on a pool of their own, one thread and no queue here, and are turned away
+ * with 503 while it is busy instead of waiting on the shared async executor.
+ */
+@SpringBootTest(properties = {
+        "auth.token.stateless=true",
+        "bookings.export.concurrency=1",
+        "bookings.export.queue-capacity=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private BookingExportExecutor exportExecutor;
+
+    private String adminToken;
+
+    @BeforeEach
+    void signIn() {
+        HotelUserDetails admin = HotelUserDetails.buildUserDetails("admin@example.com", List.of("ROLE_ADMIN"));
+        adminToken = jwtUtils.generateJwtTokenForUser(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @Test
+    void exportIsStreamed() throws Exception {
+        MvcResult result = export();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("booking_id,check_in")));
+    }
+
+    @Test
+    void exportIsTurnedAwayWhileExportThreadsAreBusy() throws Exception {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) ReflectionTestUtils.getField(exportExecutor, "executor");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            MvcResult result = export();
+            assertThat(WebAsyncUtils.getAsyncManager(result.getRequest()).getConcurrentResult())
+                    .isInstanceOf(TaskRejectedException.class);
+
+            // MockMvc only records results of callables that ran, so dispatch the rejection as the container would
+            MockHttpServletRequest rejected = result.getRequest();
+            rejected.setDispatcherType(DispatcherType.ASYNC);
+            rejected.setAsyncStarted(false);
+            mockMvc.perform(servletContext -> rejected)
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private MvcResult export() throws Exception {
+        return mockMvc.perform(get("/bookings/export").param("format", "CSV")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,38 @@
+package com.sunny.suitenest.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Room imports accept uploads far above the global multipart limit, so anonymous clients must be turned
+ * away by the security filter chain, before the upload is read.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RoomImportSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousImportIsRejected() throws Exception {
+        MockMultipartFile manifest = new MockMultipartFile("manifest", "rooms.csv", "text/csv",
+                "room_type,room_price,photo\nSingle,100,\n".getBytes());
+        MockMultipartFile photos = new MockMultipartFile("photos", "photos.zip", "application/zip", new byte[0]);
+
+        mockMvc.perform(multipart("/rooms/import").file(manifest).file(photos))
+                .andExpect(status().isUnauthorized())
+                // Rejected by the filter chain: the request never reached the controller, so nothing was parsed
+                .andExpect(result -> assertThat(result.getHandler()).isNull());
+    }
+}
@@ -0,0 +1,33 @@
+package com.sunny.suitenest.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MySqlCursorFetchTest {
+
+    @Test
+    void mysqlPoolsFetchThroughACursor() {
+        HikariDataSource dataSource = pool("jdbc:mysql://localhost:3306/suitenest_db");
+
+        new MySqlCursorFetch().postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties()).containsEntry("useCursorFetch", "true");
+    }
+
+    @Test
+    void otherPoolsAreLeftAlone() {
+        HikariDataSource dataSource = pool("jdbc:postgresql://localhost:5432/suitenest");
+
+        new MySqlCursorFetch().postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties()).isEmpty();
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        return dataSource;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sunny.suitenest.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two filters stand for two nodes behind a load balancer: a read that follows a write must stay on the
+ * primary whichever node it reaches, signed in or not.
+ */
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter writeNode = new ReadYourWritesFilter(Duration.ofSeconds(5));
+    private final ReadYourWritesFilter readNode = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void signedInReadAfterAWriteIsPinnedOnAnotherNode() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "guest@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        try {
+            MockHttpServletResponse written = new MockHttpServletResponse();
+            assertThat(filter(writeNode, new MockHttpServletRequest("POST", "/bookings/room/1/booking"), written))
+                    .isTrue();
+            Cookie cookie = written.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+            assertThat(cookie).isNotNull();
+            assertThat(cookie.getMaxAge()).isEqualTo(5);
+
+            MockHttpServletRequest read = new MockHttpServletRequest("GET", "/bookings/user/guest@example.com/bookings");
+            read.setCookies(cookie);
+            assertThat(filter(readNode, read, new MockHttpServletResponse())).isTrue();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void readWithoutARecentWriteUsesReplicas() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(filter(readNode, new MockHttpServletRequest("GET", "/rooms/all-rooms"), response)).isFalse();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+    }
+
+    private static boolean filter(ReadYourWritesFilter filter, MockHttpServletRequest request,
+                                  MockHttpServletResponse response) throws Exception {
+        boolean[] pinned = new boolean[1];
+        FilterChain chain = (req, res) -> pinned[0] = ReadRouting.isPinnedToPrimary();
+        filter.doFilter(request, response, chain);
+        return pinned[0];
+    }
+}
@@ -0,0 +1,94 @@
+package com.sunny.suitenest.repository;
+
+import com.sunny.suitenest.migration.V3__Booked_room_id_sequence;
+import com.sunny.suitenest.migration.V4__Room_user_role_id_sequences;
+import com.sunny.suitenest.migration.V6__Outbox_event;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.projection.InventoryStamp;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The inventory ETag is built from the database, so it has to move with every change a node can make.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({V3__Booked_room_id_sequence.class, V4__Room_user_role_id_sequences.class, V6__Outbox_event.class})
+class InventoryStampTest {
+
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void emptyInventoryHasNoLastModified() {
+        InventoryStamp stamp = roomRepository.findInventoryStamp();
+
+        assertThat(stamp.rooms()).isZero();
+        assertThat(stamp.lastModifiedMillis()).isEqualTo(-1);
+    }
+
+    @Test
+    void stampChangesWithRoomsAndBookings() {
+        Long roomId = newRoom("Single");
+        Long otherRoomId = newRoom("Double");
+        InventoryStamp initial = stamp();
+        assertThat(initial.rooms()).isEqualTo(2);
+
+        Room room = roomRepository.findByIdForBooking(roomId).orElseThrow();
+        BookedRoom booking = new BookedRoom();
+        booking.setGuestFullName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setCheckInDate(LocalDate.now().plusDays(1));
+        booking.setCheckOutDate(LocalDate.now().plusDays(3));
+        booking.setNumOfAdults(1);
+        room.addBooking(booking);
+        bookingRepository.save(booking);
+        InventoryStamp booked = stamp();
+        assertThat(booked.eTag("URL")).isNotEqualTo(initial.eTag("URL"));
+
+        bookingRepository.deleteById(booking.getBookingId());
+        roomRepository.touch(roomId, Instant.now());
+        InventoryStamp cancelled = stamp();
+        assertThat(cancelled.eTag("URL")).isNotIn(initial.eTag("URL"), booked.eTag("URL"));
+
+        roomRepository.findById(otherRoomId).orElseThrow().setRoomPrice(BigDecimal.valueOf(250));
+        InventoryStamp updated = stamp();
+        assertThat(updated.eTag("URL")).isNotEqualTo(cancelled.eTag("URL"));
+
+        roomRepository.deleteById(otherRoomId);
+        InventoryStamp deleted = stamp();
+        assertThat(deleted.rooms()).isEqualTo(1);
+        assertThat(deleted.eTag("URL")).isNotEqualTo(updated.eTag("URL"));
+        assertThat(stamp().eTag("URL")).isEqualTo(deleted.eTag("URL"));
+    }
+
+    private Long newRoom(String roomType) {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(100));
+        return roomRepository.save(room).getId();
+    }
+
+    private InventoryStamp stamp() {
+        entityManager.flush();
+        entityManager.clear();
+        return roomRepository.findInventoryStamp();
+    }
+}
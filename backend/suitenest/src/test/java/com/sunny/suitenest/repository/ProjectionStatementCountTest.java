@@ -0,0 +1,121 @@
+package com.sunny.suitenest.repository;
+
+import com.sunny.suitenest.migration.V3__Booked_room_id_sequence;
+import com.sunny.suitenest.migration.V4__Room_user_role_id_sequences;
+import com.sunny.suitenest.migration.V6__Outbox_event;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.projection.BookingSummary;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.response.BookingResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The listing and booking lookups read DTO projections: one statement per query however many rooms
+ * and bookings there are, and no entities loaded.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({V3__Booked_room_id_sequence.class, V4__Room_user_role_id_sequences.class, V6__Outbox_event.class})
+class ProjectionStatementCountTest {
+
+    private static final int ROOMS = 20;
+    private static final int BOOKINGS_PER_ROOM = 3;
+    private static final String GUEST_EMAIL = "guest@example.com";
+
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String confirmationCode;
+
+    @BeforeEach
+    void seed() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setRoomType(i % 2 == 0 ? "Single" : "Double");
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            for (int j = 0; j < BOOKINGS_PER_ROOM; j++) {
+                BookedRoom booking = new BookedRoom();
+                booking.setGuestFullName("Guest " + i);
+                booking.setGuestEmail(j == 0 ? GUEST_EMAIL : "guest" + i + "-" + j + "@example.com");
+                booking.setCheckInDate(checkIn.plusDays(j * 3L));
+                booking.setCheckOutDate(checkIn.plusDays(j * 3L + 2));
+                booking.setNumOfAdults(1);
+                room.addBooking(booking);
+                confirmationCode = booking.getBookingConfirmationCode();
+            }
+            roomRepository.save(room);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void roomListingTakesOneStatementForRoomsAndOneForBookings() {
+        List<RoomSummary> rooms = roomRepository.findAllSummaries();
+        List<BookingSummary> bookings = bookingRepository.findSummariesByRoomIdIn(
+                rooms.stream().map(RoomSummary::id).toList());
+
+        assertThat(rooms).hasSize(ROOMS);
+        assertThat(bookings).hasSize(ROOMS * BOOKINGS_PER_ROOM);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void bookingLookupByConfirmationCodeTakesOneStatement() {
+        Optional<BookingResponse> booking = bookingRepository.findBookingResponseByConfirmationCode(confirmationCode);
+
+        assertThat(booking).isPresent();
+        assertThat(booking.get().getRoom()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void bookingLookupByGuestEmailTakesOneStatement() {
+        List<BookingResponse> bookings = bookingRepository.findBookingResponsesByGuestEmail(GUEST_EMAIL);
+
+        assertThat(bookings).hasSize(ROOMS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void allBookingsTakeOneStatement() {
+        List<BookingResponse> bookings = bookingRepository.findAllBookingResponses();
+
+        assertThat(bookings).hasSize(ROOMS * BOOKINGS_PER_ROOM);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
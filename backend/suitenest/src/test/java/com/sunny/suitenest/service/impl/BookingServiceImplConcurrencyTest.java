@@ -0,0 +1,273 @@
+package com.sunny.suitenest.service.impl;
+
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.concurrent.StripedLock;
+import com.sunny.suitenest.exception.InvalidBookingRequestException;
+import com.sunny.suitenest.export.BookingExportWriter;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.outbox.BookingOutbox;
+import com.sunny.suitenest.repository.BookingRepository;
+import com.sunny.suitenest.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads book the same room for overlapping dates at once: exactly one booking may commit and
+ * every other request must be rejected. Bookings of rooms on different lock stripes must not wait for
+ * each other, and commit throughput under contention is reported.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingServiceImplConcurrencyTest.class);
+
+    private static final int THREADS = 16;
+    private static final int CONTENDED_ROOMS = 4;
+    private static final int BOOKINGS_PER_THREAD = 10;
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+    @Autowired
+    private BookingExportWriter exportWriter;
+    @Autowired
+    private BookingOutbox bookingOutbox;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void onlyOneOverlappingBookingCommitsOnOneNode() throws Exception {
+        Long roomId = newRoom();
+
+        List<Outcome> outcomes = bookConcurrently(roomId, List.of(bookingService));
+
+        assertOneBookingCommitted(roomId, outcomes);
+    }
+
+    // A second service instance has its own room locks, like another node, so only the optimistic
+    // version check on the room keeps the two instances from double-booking
+    @Test
+    void onlyOneOverlappingBookingCommitsAcrossNodes() throws Exception {
+        Long roomId = newRoom();
+        BookingServiceImpl otherNode = new BookingServiceImpl(bookingRepository, roomRepository, availabilityIndex,
+                exportWriter, bookingOutbox, transactionTemplate, meterRegistry);
+
+        List<Outcome> outcomes = bookConcurrently(roomId, List.of(bookingService, otherNode));
+
+        assertOneBookingCommitted(roomId, outcomes);
+    }
+
+    // A room whose stripe is locked elsewhere must not hold up bookings of rooms on other stripes
+    @Test
+    void bookingsForDifferentRoomsDoNotWaitForEachOther() throws Exception {
+        Long lockedRoomId = newRoom();
+        Long freeRoomId = newRoom();
+        StripedLock roomLocks = (StripedLock) ReflectionTestUtils.getField(bookingService, "roomLocks");
+        while (roomLocks.get(freeRoomId) == roomLocks.get(lockedRoomId)) {
+            freeRoomId = newRoom();
+        }
+        Long otherRoomId = freeRoomId;
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Lock lock = roomLocks.get(lockedRoomId);
+        lock.lock();
+        try {
+            Future<String> blocked = executor.submit(() ->
+                    bookingService.saveBooking(lockedRoomId, booking(CHECK_IN, CHECK_IN.plusDays(2))));
+            Future<String> other = executor.submit(() ->
+                    bookingService.saveBooking(otherRoomId, booking(CHECK_IN, CHECK_IN.plusDays(2))));
+
+            assertThat(other.get(30, TimeUnit.SECONDS)).isNotNull();
+            assertThat(blocked.isDone()).isFalse();
+            lock.unlock();
+            assertThat(blocked.get(30, TimeUnit.SECONDS)).isNotNull();
+        } finally {
+            if (((ReentrantLock) lock).isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    // Threads share a few rooms, so they contend for the same room locks and versions. Each thread books
+    // its own nights in ascending order; the baseline availability rule still rejects a stay that ends
+    // before a stay another thread already booked, so rejections are counted, not failed.
+    @Test
+    void reportsCommitThroughputUnderContention() throws Exception {
+        Throughput throughput = measureThroughput(CONTENDED_ROOMS);
+
+        assertThat(throughput.commits() + throughput.rejections()).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+        assertThat(throughput.commits()).isPositive();
+    }
+
+    // One room per thread: nothing to contend for, so every booking commits
+    @Test
+    void reportsCommitThroughputWithoutContention() throws Exception {
+        Throughput throughput = measureThroughput(THREADS);
+
+        assertThat(throughput.commits()).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+    }
+
+    private Throughput measureThroughput(int roomCount) throws Exception {
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            roomIds.add(newRoom());
+        }
+        BookingServiceImpl otherNode = new BookingServiceImpl(bookingRepository, roomRepository, availabilityIndex,
+                exportWriter, bookingOutbox, transactionTemplate, meterRegistry);
+        List<BookingServiceImpl> nodes = List.of(bookingService, otherNode);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger commits = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        double seconds;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Long roomId = roomIds.get(thread % roomIds.size());
+                BookingServiceImpl node = nodes.get(thread % nodes.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                        LocalDate checkIn = CHECK_IN.plusDays(3L * (i * THREADS + thread));
+                        try {
+                            node.saveBooking(roomId, booking(checkIn, checkIn.plusDays(2)));
+                            commits.incrementAndGet();
+                        } catch (InvalidBookingRequestException e) {
+                            rejections.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(120, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Booking failed with an unexpected exception", e.getCause());
+                }
+            }
+            seconds = (System.nanoTime() - started) / 1e9;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("{} threads on {} rooms: {} commits, {} rejected in {} s, {} commits/s",
+                THREADS, roomCount, commits.get(), rejections.get(),
+                String.format("%.2f", seconds), String.format("%.1f", commits.get() / seconds));
+        long committed = roomIds.stream().mapToLong(roomId -> bookingRepository.findByRoomId(roomId).size()).sum();
+        assertThat(committed).isEqualTo(commits.get());
+        return new Throughput(commits.get(), rejections.get());
+    }
+
+    private Long newRoom() {
+        Room room = new Room();
+        room.setRoomType("Concurrency");
+        room.setRoomPrice(BigDecimal.valueOf(100));
+        Long roomId = roomRepository.save(room).getId();
+        availabilityIndex.roomSaved(roomId, room.getRoomType());
+        return roomId;
+    }
+
+    private List<Outcome> bookConcurrently(Long roomId, List<BookingServiceImpl> nodes) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                BookingServiceImpl node = nodes.get(i % nodes.size());
+                // Every stay covers CHECK_IN + 1, so any two of them overlap
+                BookedRoom booking = booking(CHECK_IN.plusDays(i % 2), CHECK_IN.plusDays(2 + i % 3));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return new Outcome(node.saveBooking(roomId, booking), null);
+                    } catch (InvalidBookingRequestException e) {
+                        return new Outcome(null, e);
+                    }
+                }));
+            }
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(getOutcome(future));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Outcome getOutcome(Future<Outcome> future) throws Exception {
+        try {
+            return future.get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new AssertionError("Booking failed with an unexpected exception", e.getCause());
+        }
+    }
+
+    private void assertOneBookingCommitted(Long roomId, List<Outcome> outcomes) {
+        List<String> confirmations = outcomes.stream()
+                .filter(outcome -> outcome.confirmationCode() != null)
+                .map(Outcome::confirmationCode)
+                .toList();
+        assertThat(confirmations).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome.rejection() != null).hasSize(THREADS - 1);
+
+        List<BookedRoom> committed = bookingRepository.findByRoomId(roomId);
+        assertThat(committed).extracting(BookedRoom::getBookingConfirmationCode).containsExactly(confirmations.get(0));
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setGuestFullName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setNumOfAdults(1);
+        return booking;
+    }
+
+    private record Outcome(String confirmationCode, InvalidBookingRequestException rejection) {
+    }
+
+    private record Throughput(int commits, int rejections) {
+    }
+}
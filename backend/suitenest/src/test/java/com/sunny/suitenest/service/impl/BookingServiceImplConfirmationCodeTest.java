@@ -0,0 +1,124 @@
+package com.sunny.suitenest.service.impl;
+
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.BookingRepository;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.request.BulkBookingRequest;
+import com.sunny.suitenest.response.BulkBookingResponse;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Confirmation codes are drawn at random and unique in the database. Drawing a code that is already
+ * taken must cost a retry with new codes, not the booking.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplConfirmationCodeTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(120);
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Test
+    void bookingThatDrawsATakenCodeIsRetriedWithANewOne() {
+        Long roomId = newRoom();
+        String takenCode = takeCode("7000000001");
+
+        String confirmationCode;
+        try (MockedStatic<RandomStringUtils> codes = mockStatic(RandomStringUtils.class)) {
+            codes.when(() -> RandomStringUtils.randomNumeric(10)).thenReturn(takenCode, "7000000002");
+            confirmationCode = bookingService.saveBooking(roomId, booking(CHECK_IN, CHECK_IN.plusDays(2)));
+        }
+
+        assertThat(confirmationCode).isEqualTo("7000000002");
+        assertThat(bookingRepository.findByRoomId(roomId))
+                .extracting(BookedRoom::getBookingConfirmationCode)
+                .containsExactly("7000000002");
+    }
+
+    // One taken code would otherwise roll back every booking in the request
+    @Test
+    void bulkBookingThatDrawsATakenCodeIsRetriedWithNewOnes() {
+        Long firstRoomId = newRoom();
+        Long secondRoomId = newRoom();
+        String takenCode = takeCode("7000000011");
+
+        BulkBookingResponse response;
+        try (MockedStatic<RandomStringUtils> codes = mockStatic(RandomStringUtils.class)) {
+            codes.when(() -> RandomStringUtils.randomNumeric(10))
+                    .thenReturn("7000000012", takenCode, "7000000013", "7000000014");
+            response = bookingService.saveBookings(bulkRequest(firstRoomId, secondRoomId));
+        }
+
+        assertThat(response.getConfirmations())
+                .extracting(BulkBookingResponse.Confirmation::getConfirmationCode)
+                .containsExactly("7000000013", "7000000014");
+        assertThat(bookingRepository.findByRoomId(firstRoomId)).hasSize(1);
+        assertThat(bookingRepository.findByRoomId(secondRoomId)).hasSize(1);
+    }
+
+    private String takeCode(String code) {
+        Room room = roomRepository.findById(newRoom()).orElseThrow();
+        BookedRoom booking = booking(CHECK_IN, CHECK_IN.plusDays(2));
+        booking.setBookingConfirmationCode(code);
+        booking.setRoom(room);
+        bookingRepository.save(booking);
+        return code;
+    }
+
+    private Long newRoom() {
+        Room room = new Room();
+        room.setRoomType("Confirmation");
+        room.setRoomPrice(BigDecimal.valueOf(100));
+        Long roomId = roomRepository.save(room).getId();
+        availabilityIndex.roomSaved(roomId, room.getRoomType());
+        return roomId;
+    }
+
+    private static BulkBookingRequest bulkRequest(Long... roomIds) {
+        BulkBookingRequest request = new BulkBookingRequest();
+        request.setGuestFullName("Guest");
+        request.setGuestEmail("guest@example.com");
+        request.setItems(Arrays.stream(roomIds).map(roomId -> {
+            BulkBookingRequest.Item item = new BulkBookingRequest.Item();
+            item.setRoomId(roomId);
+            item.setCheckInDate(CHECK_IN);
+            item.setCheckOutDate(CHECK_IN.plusDays(2));
+            item.setNumOfAdults(1);
+            return item;
+        }).toList());
+        return request;
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setGuestFullName("Guest");
+        booking.setGuestEmail("guest@example.com");
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setNumOfAdults(1);
+        return booking;
+    }
+}
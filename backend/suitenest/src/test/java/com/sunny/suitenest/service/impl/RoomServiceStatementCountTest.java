@@ -0,0 +1,122 @@
+package com.sunny.suitenest.service.impl;
+
+import com.sunny.suitenest.availability.RoomAvailabilityIndex;
+import com.sunny.suitenest.model.BookedRoom;
+import com.sunny.suitenest.model.Room;
+import com.sunny.suitenest.repository.RoomRepository;
+import com.sunny.suitenest.repository.projection.RoomSummary;
+import com.sunny.suitenest.service.RoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The room listing and the available-room search take the same number of statements however many
+ * rooms and bookings there are. Background index refreshes and outbox polls are turned off, since
+ * statistics are counted for the whole session factory.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "rooms.availability.refresh-interval=0",
+        "outbox.poll-interval=1h"
+})
+@ActiveProfiles("test")
+class RoomServiceStatementCountTest {
+
+    private static final String ROOM_TYPE = "Statements";
+    private static final int FEW_ROOMS = 3;
+    private static final int MANY_ROOMS = 30;
+    private static final int BOOKINGS_PER_ROOM = 3;
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(90);
+
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void roomListingStatementsDoNotGrowWithRooms() {
+        addRooms(FEW_ROOMS);
+        Measured<RoomService.RoomListing> few = measure(roomService::getRoomListing);
+        addRooms(MANY_ROOMS - FEW_ROOMS);
+        Measured<RoomService.RoomListing> many = measure(roomService::getRoomListing);
+
+        assertThat(many.result().rooms()).hasSizeGreaterThanOrEqualTo(MANY_ROOMS);
+        assertThat(many.result().rooms().size()).isGreaterThan(few.result().rooms().size());
+        assertThat(few.statements()).isPositive();
+        assertThat(many.statements()).isEqualTo(few.statements());
+        assertThat(many.entityLoads()).isZero();
+    }
+
+    // Each search is measured after a rebuild, which empties the search cache, so both go to the database
+    @Test
+    void availableRoomSearchStatementsDoNotGrowWithRooms() {
+        addRooms(FEW_ROOMS);
+        availabilityIndex.rebuild();
+        Measured<List<RoomSummary>> few = measure(this::searchAvailableRooms);
+        addRooms(MANY_ROOMS - FEW_ROOMS);
+        availabilityIndex.rebuild();
+        Measured<List<RoomSummary>> many = measure(this::searchAvailableRooms);
+
+        assertThat(few.result()).hasSizeGreaterThanOrEqualTo(FEW_ROOMS);
+        assertThat(many.result()).hasSizeGreaterThanOrEqualTo(MANY_ROOMS);
+        assertThat(few.statements()).isPositive();
+        assertThat(many.statements()).isEqualTo(few.statements());
+        assertThat(many.entityLoads()).isZero();
+    }
+
+    private List<RoomSummary> searchAvailableRooms() {
+        return roomService.getAvailableRooms(CHECK_IN, CHECK_IN.plusDays(2), ROOM_TYPE);
+    }
+
+    private <T> Measured<T> measure(Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        return new Measured<>(result, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount());
+    }
+
+    // Booked around the searched dates, never on them, so every room stays available
+    private void addRooms(int count) {
+        for (int i = 0; i < count; i++) {
+            Room room = new Room();
+            room.setRoomType(ROOM_TYPE);
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            for (int j = 0; j < BOOKINGS_PER_ROOM; j++) {
+                BookedRoom booking = new BookedRoom();
+                booking.setGuestFullName("Guest " + i);
+                booking.setGuestEmail("guest" + i + "-" + j + "@example.com");
+                booking.setCheckInDate(CHECK_IN.plusDays(3 + j * 3L));
+                booking.setCheckOutDate(CHECK_IN.plusDays(5 + j * 3L));
+                booking.setNumOfAdults(1);
+                room.addBooking(booking);
+            }
+            roomRepository.save(room);
+        }
+    }
+
+    private record Measured<T>(T result, long statements, long entityLoads) {
+    }
+}
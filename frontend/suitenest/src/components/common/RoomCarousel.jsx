@@ -2,7 +2,7 @@ import React, { useEffect, useState } from "react";
 import { Link } from "react-router-dom";
 import { Card, Carousel, Col, Container, Row } from "react-bootstrap";
 
-import { getAllRooms } from "../utils/ApiFunctions";
+import { getAllRooms, getRoomPhotoSrc } from "../utils/ApiFunctions";
 
 const RoomCarousel = () => {
   const [rooms, setRooms] = useState([{ id: "", roomType: "", roomPrice: "", photo: "" }]);
@@ -45,7 +45,7 @@ const RoomCarousel = () => {
                       <Link to={`/book-room/${room.id}`}>
                         <Card.Img
                           variant="top"
-                          src={`data:image/png;base64, ${room.photo}`}
+                          src={getRoomPhotoSrc(room)}
                           alt="Room photo"
                           className="w-100"
                           style={{ height: "200px" }}
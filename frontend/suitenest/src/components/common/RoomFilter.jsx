@@ -1,11 +1,15 @@
 import React, { useState } from "react";
 
-const RoomFilter = ({ data, setFilteredData }) => {
-  const [filter, setFilter] = useState("");
+const RoomFilter = ({ data, setFilteredData, initialRoomType, roomTypeOptions, onFilterChange }) => {
+  const [filter, setFilter] = useState(initialRoomType || "");
 
   const handleSelectChange = e => {
     const selectedRoomType = e.target.value;
     setFilter(selectedRoomType);
+    if (onFilterChange) {
+      onFilterChange(selectedRoomType);
+      return;
+    }
 
     const filteredRooms = data.filter(room =>
       room.roomType.toLowerCase().includes(selectedRoomType.toLowerCase())
@@ -15,10 +19,14 @@ const RoomFilter = ({ data, setFilteredData }) => {
 
   const clearFilter = () => {
     setFilter("");
+    if (onFilterChange) {
+      onFilterChange("");
+      return;
+    }
     setFilteredData(data);
   };
 
-  const roomTypes = ["", ...new Set(data.map(room => room.roomType))];
+  const roomTypes = ["", ...new Set(roomTypeOptions || data.map(room => room.roomType))];
   return (
     <div className="input-group mb-3">
       <span className="input-group-text" id="room-type-filter">
@@ -3,30 +3,42 @@ import { Col, Container, Row } from "react-bootstrap";
 
 import RoomCard from "./RoomCard";
 import RoomFilter from "../common/RoomFilter.jsx";
-import { getAllRooms } from "../utils/ApiFunctions";
+import { getRoomPage, getRoomTypes } from "../utils/ApiFunctions";
 import RoomPaginator from "../common/RoomPaginator.jsx";
 
+const roomsPerPage = 6;
+
 const Room = () => {
   const [data, setData] = useState([]);
   const [error, setError] = useState(null);
   const [isLoading, setIsLoading] = useState(false);
   const [currentPage, setCurrentPage] = useState(1);
-  const [roomsPerPage, setRoomsPerPage] = useState(6);
-  const [filteredData, setFilteredData] = useState([{ id: "" }]);
+  const [roomTypes, setRoomTypes] = useState([]);
+  const [roomType, setRoomType] = useState("");
+  // cursors[i] is the cursor that loads page i + 1; the server only knows "next", so pages are discovered one by one
+  const [cursors, setCursors] = useState([null]);
+
+  useEffect(() => {
+    getRoomTypes()
+      .then(setRoomTypes)
+      .catch(error => setError(error.message));
+  }, []);
 
   useEffect(() => {
     setIsLoading(true);
-    getAllRooms()
-      .then(data => {
-        setData(data);
-        setFilteredData(data);
+    getRoomPage(cursors[currentPage - 1], roomsPerPage, roomType)
+      .then(page => {
+        setData(page.items);
+        if (page.nextCursor && cursors.length === currentPage) {
+          setCursors([...cursors, page.nextCursor]);
+        }
         setIsLoading(false);
       })
       .catch(error => {
         setError(error.message);
         setIsLoading(false);
       });
-  }, []);
+  }, [currentPage, roomType]);
 
   if (isLoading) {
     return <div>Loading rooms...</div>;
@@ -40,21 +52,28 @@ const Room = () => {
     setCurrentPage(pageNumber);
   };
 
-  const totalPages = Math.ceil(filteredData.length / roomsPerPage);
+  const handleFilterChange = selectedRoomType => {
+    setCursors([null]);
+    setCurrentPage(1);
+    setRoomType(selectedRoomType);
+  };
+
+  const totalPages = cursors.length;
 
   const renderRooms = () => {
-    const startIndex = (currentPage - 1) * roomsPerPage;
-    const endIndex = startIndex + roomsPerPage;
-    return filteredData
-      .slice(startIndex, endIndex)
-      .map(room => <RoomCard key={room.id} room={room} />);
+    return data.map(room => <RoomCard key={room.id} room={room} />);
   };
 
   return (
     <Container>
       <Row>
         <Col md={6} className="mb-3 mb-md-0">
-          <RoomFilter data={data} setFilteredData={setFilteredData} />
+          <RoomFilter
+            data={data}
+            initialRoomType={roomType}
+            roomTypeOptions={roomTypes}
+            onFilterChange={handleFilterChange}
+          />
         </Col>
         <Col md={6} className="d-flex align-items-center justify-content-end">
           <RoomPaginator
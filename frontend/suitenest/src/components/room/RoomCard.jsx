@@ -2,6 +2,8 @@ import React from "react";
 import { Col, Card } from "react-bootstrap";
 import { Link } from "react-router-dom";
 
+import { getRoomPhotoSrc } from "../utils/ApiFunctions";
+
 const RoomCard = ({ room }) => {
   return (
     <Col key={room.id} className="mb-4" xs={12}>
@@ -11,7 +13,7 @@ const RoomCard = ({ room }) => {
             <Link to={`/book-room/${room.id}`}>
               <Card.Img
                 variant="top"
-                src={`data:image/png;base64, ${room.photo}`}
+                src={getRoomPhotoSrc(room)}
                 alt="Room Photo"
                 style={{ width: "100%", maxWidth: "200px", height: "auto" }}
               />
@@ -2,6 +2,8 @@ import axios from "axios";
 
 export const api = axios.create({
   baseURL: import.meta.env.VITE_API_BASE_URL,
+  // Sends the API's cookies cross-origin, including the one that keeps reads after a write on the primary
+  withCredentials: true,
 });
 
 export const getHeader = () => {
@@ -53,6 +55,7 @@ export async function getAllRooms() {
   try {
     const response = await api.get("/rooms/all-rooms", {
       headers: getHeader(), // Include other necessary headers, but do not manually set Content-Type
+      params: { photoMode: "URL" },
     });
     return response.data;
   } catch (err) {
@@ -60,6 +63,23 @@ export async function getAllRooms() {
   }
 }
 
+/* This function gets one page of rooms; pass the nextCursor of the previous page to continue */
+export async function getRoomPage(cursor, limit, roomType) {
+  try {
+    const response = await api.get("/rooms/page", {
+      params: { cursor: cursor || undefined, limit, roomType: roomType || undefined, photoMode: "URL" },
+    });
+    return response.data;
+  } catch (err) {
+    throw new Error("Error fetching rooms. Error: " + err.message);
+  }
+}
+
+/* This function builds the image source for a room returned in URL photo mode */
+export function getRoomPhotoSrc(room) {
+  return room.photoUrl ? `${api.defaults.baseURL}${room.photoUrl}` : undefined;
+}
+
 /* This function deletes room by roomId from the database */
 export async function deleteRoom(roomId) {
   try {
@@ -151,7 +171,7 @@ export async function cancelBooking(bookingId) {
 /* This function retrieves available room types between the checkin and checkout date */
 export async function getAvailableRooms(checkInDate, checkOutDate, roomType) {
   const result = await api.get(
-    `/rooms/available-rooms?checkInDate=${checkInDate}&checkOutDate=${checkOutDate}&roomType=${roomType}`
+    `/rooms/available-rooms?checkInDate=${checkInDate}&checkOutDate=${checkOutDate}&roomType=${roomType}&photoMode=URL`
   );
   return result;
 }